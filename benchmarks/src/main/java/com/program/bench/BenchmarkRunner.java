@@ -0,0 +1,45 @@
+package com.program.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks like the JMH command line does, taking the same arguments, except that the results are written to
+ * RESULT as JSON and the gc profiler is added unless told otherwise. The profiler records the bytes every operation
+ * allocates as gc.alloc.rate.norm. Keeping the results of two commits and loading both into a JMH visualizer shows what
+ * changed between them.
+ * <p>
+ * Run from the repository root with {@code java -jar benchmarks/target/benchmarks.jar}, optionally followed by a regular
+ * expression to run only some of them, e.g. {@code SimBenchmark}, or by {@code -h} to list the other options.
+ */
+public class BenchmarkRunner {
+
+    public static final String RESULT = "benchmarks/target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if (commandLine.shouldList()) {
+            new Runner(commandLine).list();
+            return;
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(RESULT);
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package com.program.bench;
+
+import com.program.bench.baseline.BaselineArrayList;
+import com.program.bench.baseline.BaselineQueue;
+import com.program.util.ArrayList;
+import com.program.util.Queue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the util ArrayList and Queue at the sizes the world's lists reach, filled with the same boxed values every time so
+ * that allocating the elements is left out. The benchmarks starting with baseline do the same with the classes the util
+ * package had before, which copy their whole backing array on every add, so that the two can be compared. Adding 100k
+ * elements to the baseline ArrayList takes seconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CollectionsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private Integer[] values;
+    private ArrayList<Integer> list;
+    private Queue<Integer> queue;
+    private BaselineArrayList<Integer> baselineList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        values = new Integer[size];
+        list = new ArrayList<>();
+        queue = new Queue<>();
+        for (int i = 0; i < size; i++) {
+            values[i] = i;
+            list.add(values[i]);
+            queue.enqueue(values[i]);
+        }
+        baselineList = new BaselineArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            baselineList.set(i, values[i]);
+        }
+    }
+
+    /**
+     * Fills a new list, growing it from its default capacity.
+     */
+    @Benchmark
+    public ArrayList<Integer> arrayListAdd() {
+        ArrayList<Integer> filled = new ArrayList<>();
+        for (Integer value : values) {
+            filled.add(value);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public BaselineArrayList<Integer> baselineArrayListAdd() {
+        BaselineArrayList<Integer> filled = new BaselineArrayList<>();
+        for (Integer value : values) {
+            filled.add(value);
+        }
+        return filled;
+    }
+
+    @Benchmark
+    public long arrayListGet() {
+        long sum = 0;
+        for (int i = 0; i < list.size(); i++) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long baselineArrayListGet() {
+        long sum = 0;
+        for (int i = 0; i < baselineList.size(); i++) {
+            sum += baselineList.get(i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayListIterate() {
+        long sum = 0;
+        for (Integer value : list) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /**
+     * Fills a new queue and drains it again, so the buffer doubles on the way up and halves on the way down.
+     */
+    @Benchmark
+    public long queueFillAndDrain() {
+        Queue<Integer> filled = new Queue<>();
+        for (Integer value : values) {
+            filled.enqueue(value);
+        }
+        long sum = 0;
+        while (!filled.isEmpty()) {
+            sum += filled.dequeue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long baselineQueueFillAndDrain() {
+        BaselineQueue<Integer> filled = new BaselineQueue<>();
+        for (Integer value : values) {
+            filled.enqueue(value);
+        }
+        long sum = 0;
+        while (!filled.isEmpty()) {
+            sum += filled.dequeue();
+        }
+        return sum;
+    }
+
+    /**
+     * Moves every element from the head of a full queue to its tail, so that the head wraps around the whole buffer without
+     * it ever being resized. There is no baseline for it, as the baseline Queue never reuses the slots it dequeued from, so
+     * its buffer would keep growing for as long as the benchmark ran.
+     */
+    @Benchmark
+    public long queueCycle() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            Integer value = queue.dequeue();
+            sum += value;
+            queue.enqueue(value);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,71 @@
+package com.program.bench;
+
+import com.program.bench.baseline.BaselineObjLoader;
+import com.program.render.MeshData;
+import com.program.render.ObjLoader;
+import javafx.scene.shape.TriangleMesh;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times reading and parsing the tile meshes, next to the line-based parser ObjLoader replaced. BenchmarkRunner adds the gc
+ * profiler, so gc.alloc.rate.norm gives the bytes allocated per load.
+ * <p>
+ * readObj stops at the raw arrays, while parseObj and baselineLoadObj also fill a TriangleMesh, so the last two compare like
+ * for like. A TriangleMesh can be created without starting the JavaFX toolkit, unlike the MeshView loadObj returns.
+ * <p>
+ * The paths are relative to the repository root, which the benchmarks should be run from.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ObjLoaderBenchmark {
+
+    public static final String ASSETS = "demo/src/main/java/com/program/assets/objects/";
+
+    // The smallest, a middling and the largest of the meshes
+    @Param({"any1", "river3", "grass3"})
+    public String mesh;
+
+    private String path;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        path = ASSETS + mesh + ".obj";
+        if (!Files.isRegularFile(Paths.get(path))) { // readObj would quietly return an empty mesh, which is no benchmark
+            throw new IllegalStateException("Cannot find `" + path + "`, run the benchmarks from the repository root");
+        }
+    }
+
+    @Benchmark
+    public MeshData readObj() {
+        return ObjLoader.readObj(path);
+    }
+
+    @Benchmark
+    public TriangleMesh parseObj() {
+        return ObjLoader.parseObj(path);
+    }
+
+    @Benchmark
+    public TriangleMesh baselineLoadObj() {
+        return BaselineObjLoader.loadObj(path);
+    }
+}
@@ -0,0 +1,90 @@
+package com.program.bench;
+
+import com.program.World;
+import com.program.sim.GrowthSim;
+import com.program.sim.PopSim;
+import com.program.sim.TerrainSim;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times a tick of each Sim on worlds of different sizes.
+ * <p>
+ * A tick changes the world it runs on, so every iteration runs TICKS ticks once on a fresh copy of a world grown before the
+ * first. That way every measurement starts from the same tiles however long the benchmark runs, and the scores are per tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 50) // Every iteration only runs TICKS ticks, so it takes many of them to compile the sims
+@Measurement(iterations = 50)
+@Fork(1)
+public class SimBenchmark {
+
+    public static final int TICKS = 100; // Few enough that the smallest world only grows by a tenth
+
+    @Param({"1000", "10000", "100000"})
+    public int tiles;
+
+    private World grown;
+    private World world;
+    private TerrainSim terrain;
+    private GrowthSim growth;
+    private PopSim pop;
+
+    @Setup(Level.Trial)
+    public void grow() {
+        grown = Worlds.grow(tiles);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = Worlds.copy(grown);
+        terrain = new TerrainSim(2.0);
+        growth = new GrowthSim(4.0);
+        pop = new PopSim(2.0);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public int terrain() {
+        for (int i = 0; i < TICKS; i++) {
+            terrain.simulate(world);
+        }
+        return world.OCCUPIED_TILES.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public long growth() {
+        for (int i = 0; i < TICKS; i++) {
+            growth.simulate(world);
+        }
+        return world.getGeneration();
+    }
+
+    /**
+     * Only every PopSim.CHECK_INTERVAL-th tick recounts the world, so this is the recount spread over the ticks in between.
+     */
+    @Benchmark
+    @OperationsPerInvocation(TICKS)
+    public double pop() {
+        for (int i = 0; i < TICKS; i++) {
+            pop.simulate(world);
+        }
+        return world.POPULATIONS[0];
+    }
+}
@@ -0,0 +1,71 @@
+package com.program.bench;
+
+import com.program.World;
+import com.program.engine.Engine;
+import com.program.engine.WorldObserver;
+import com.program.engine.WorldSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times saving and loading world snapshots of different sizes, see WorldSnapshot.
+ * <p>
+ * save writes the grown world over the same file every time, and load reads back the file written before the first
+ * iteration, rebuilding the index, adjacency graph, populations and yields of the world as Engine.load does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tiles;
+
+    private Engine engine;
+    private Path saved; // Read by load
+    private Path written; // Overwritten by save
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        engine = Worlds.growEngine(tiles);
+        saved = Files.createTempFile("snapshot-benchmark", ".world");
+        written = Files.createTempFile("snapshot-benchmark", ".world");
+        engine.save(saved);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(saved);
+        Files.deleteIfExists(written);
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        engine.save(written);
+        return written;
+    }
+
+    @Benchmark
+    public World load() throws IOException {
+        return WorldSnapshot.read(saved, new WorldObserver() {}).getWorld();
+    }
+}
@@ -0,0 +1,156 @@
+package com.program.bench;
+
+import com.program.objects.tile.Tile;
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import com.program.util.ArrayList;
+import com.program.util.TileGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times linking and looking up the tiles of a TileGraph, on graphs of tiles laid out in a square of axial coordinates of
+ * which every other one is active.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TileGraphBenchmark {
+
+    public static final int EDGES = 1000; // Explicit edges added per iteration
+
+    /**
+     * A graph that is only read, built once.
+     */
+    @State(Scope.Thread)
+    public static class Built {
+
+        @Param({"1000", "10000", "100000"})
+        public int vertices;
+
+        Tile[] tiles;
+        Tile[] neighbours; // A grid neighbour of each tile, in the same row
+        TileGraph graph;
+        final Tile[] buffer = new Tile[TileGraph.MAX_GRID_DEGREE];
+        int next = 0; // The tile to look up next, cycling through every tile
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            tiles = layOut(vertices);
+            graph = build(tiles);
+            neighbours = new Tile[tiles.length];
+            for (int i = 0; i < tiles.length; i++) {
+                boolean rowGoesOn = i + 1 < tiles.length && tiles[i + 1].r() == tiles[i].r();
+                neighbours[i] = tiles[rowGoesOn ? i + 1 : i - 1];
+            }
+        }
+
+        Tile nextTile() {
+            Tile tile = tiles[next];
+            next = next + 1 == tiles.length ? 0 : next + 1;
+            return tile;
+        }
+    }
+
+    /**
+     * A graph without explicit edges, rebuilt before every iteration so that the edges added by one do not pile up in the next.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        @Param({"1000", "10000", "100000"})
+        public int vertices;
+
+        Tile[] tiles;
+        TileGraph graph;
+        final Tile[] sources = new Tile[EDGES], destinations = new Tile[EDGES]; // Random pairs, almost never grid neighbours
+
+        @Setup(Level.Trial)
+        public void layOutTiles() {
+            tiles = layOut(vertices);
+            Random random = new Random(Worlds.SEED);
+            for (int i = 0; i < EDGES; i++) {
+                sources[i] = tiles[random.nextInt(tiles.length)];
+                destinations[i] = tiles[random.nextInt(tiles.length)];
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void buildGraph() {
+            graph = build(tiles);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(EDGES)
+    public int addEdge(Fresh state) {
+        for (int i = 0; i < EDGES; i++) {
+            state.graph.addEdge(state.sources[i], state.destinations[i], 1.0, true);
+        }
+        return state.graph.size();
+    }
+
+    /**
+     * Grid neighbours are linked when their vertices are added, so adding an edge between them only has to recognise them.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int addGridEdge(Built state) {
+        Tile tile = state.nextTile();
+        state.graph.addEdge(tile, state.neighbours[tile.id], 1.0, true);
+        return state.graph.size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public ArrayList<Tile> returnAdjacentActiveTiles(Built state) {
+        return state.graph.returnAdjacentActiveTiles(state.nextTile());
+    }
+
+    /**
+     * The allocation-free way of doing the same as returnAdjacentActiveTiles, for comparison.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int collectAdjacentActiveTiles(Built state) {
+        return state.graph.collectAdjacentActiveTiles(state.nextTile(), state.buffer);
+    }
+
+    // Places the tiles row by row in a square, so that most of them have all six neighbours
+    private static Tile[] layOut(int count) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        TileStore store = new TileStore();
+        Tile[] tiles = new Tile[count];
+        for (int i = 0; i < count; i++) {
+            tiles[i] = store.add(i % side, i / side, TileType.GRASS, 0);
+        }
+        return tiles;
+    }
+
+    private static TileGraph build(Tile[] tiles) {
+        TileGraph graph = new TileGraph();
+        for (Tile tile : tiles) {
+            graph.addVertex(tile);
+            if (tile.id % 2 == 0) { // Vertices are inactive by default
+                graph.setActive(tile);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,97 @@
+package com.program.bench;
+
+import com.program.World;
+import com.program.engine.Engine;
+import com.program.engine.WorldObserver;
+import com.program.objects.tile.Tile;
+import com.program.sim.GrowthSim;
+import com.program.sim.TerrainSim;
+import com.program.util.Rng;
+
+/**
+ * Builds the worlds the benchmarks run on. Nothing observes them, which stands in for the renderer, so the benchmarks
+ * only measure the simulations.
+ */
+public class Worlds {
+
+    public static final long SEED = 1; // Every benchmark runs on the same worlds
+
+    /**
+     * Grows a world the way the engine does at the default speeds, with a growth tick for every two terrain ticks, until it
+     * has a number of occupied tiles. The growth ticks get slower as the world grows, so 100k tiles take about a minute.
+     * @param tiles The number of occupied tiles.
+     * @return The new world, with the generation and tile states that many ticks leave behind.
+     */
+    public static World grow(int tiles) {
+        World world = new World(new WorldObserver() {}, new Rng(SEED));
+        TerrainSim terrain = new TerrainSim(2.0);
+        GrowthSim growth = new GrowthSim(4.0);
+        for (int tick = 0; world.OCCUPIED_TILES.size() < tiles; tick++) {
+            terrain.simulate(world);
+            if (tick % 2 == 1) {
+                growth.simulate(world);
+            }
+        }
+        return world;
+    }
+
+    /**
+     * Grows the world of a new engine the same way as grow, for the benchmarks that go through the engine rather than the
+     * sims, such as saving and loading.
+     * @param tiles The number of occupied tiles.
+     * @return The new engine.
+     */
+    public static Engine growEngine(int tiles) {
+        Engine engine = new Engine();
+        engine.reset(SEED);
+        for (int tick = 0; engine.getWorld().OCCUPIED_TILES.size() < tiles; tick++) {
+            engine.simulate(engine.TERRAIN_SIM);
+            if (tick % 2 == 1) {
+                engine.simulate(engine.GROWTH_SIM);
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Copies a world grown by grow, so that a benchmark can start every iteration from the same world without growing it
+     * again. The copy simulates exactly as the original would.
+     * @param world The world to copy, which is left as it is.
+     * @return A new world with the same tiles, queues, graph, awake tiles and generation.
+     */
+    public static World copy(World world) {
+        World copy = new World(new WorldObserver() {}, new Rng(SEED));
+        // The new world already holds the starting tile, as every world does. The others are added in order so that they get
+        // the same ids, then every column is overwritten with the original's
+        for (int id = 1; id < world.TILES.size(); id++) {
+            copy.TILES.add(world.TILES.q(id), world.TILES.r(id), world.TILES.type(id), world.TILES.rotation(id));
+        }
+        copy.TILES.copyFrom(world.TILES);
+        for (int id = 1; id < copy.TILES.size(); id++) {
+            Tile tile = copy.TILES.tile(id);
+            copy.ADJACENCY_GRAPH.addVertex(tile); // In id order, like TerrainSim, so the graph is linked the same way
+            copy.TILE_INDEX.put(tile.key(), tile);
+        }
+
+        copy.FREE_TILES.dequeue(); // The starting tile, which the original may have occupied since
+        for (int i = 0; i < world.FREE_TILES.size(); i++) {
+            copy.FREE_TILES.enqueue(copy.TILES.tile(world.FREE_TILES.get(i).id));
+        }
+        for (int rank = 0; rank < world.OCCUPIED_TILES.size(); rank++) {
+            int id = world.OCCUPIED_TILES.get(rank);
+            copy.OCCUPIED_TILES.add(id);
+            copy.ADJACENCY_GRAPH.setActive(copy.TILES.tile(id));
+            copy.ACTIVE_TILES.add(id, rank);
+            if (!world.ACTIVE_TILES.isAwake(id)) {
+                copy.ACTIVE_TILES.sleepRank(rank);
+            }
+        }
+
+        System.arraycopy(world.POPULATIONS, 0, copy.POPULATIONS, 0, world.POPULATIONS.length);
+        System.arraycopy(world.YIELDS, 0, copy.YIELDS, 0, world.YIELDS.length);
+        for (long generation = 0; generation < world.getGeneration(); generation++) {
+            copy.advanceGeneration();
+        }
+        return copy;
+    }
+}
@@ -1,6 +1,5 @@
-package com.program.util;
+package com.program.bench.baseline;
 
-import javafx.scene.shape.MeshView;
 import javafx.scene.shape.TriangleMesh;
 import javafx.scene.shape.VertexFormat;
 
@@ -8,9 +7,14 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.util.ArrayList;
 
-public class ObjLoader {
+/**
+ * The .obj parser ObjLoader replaced, which reads the file line by line and splits every line into strings, kept so that
+ * ObjLoaderBenchmark can compare the two. It is unchanged apart from its name and returning the TriangleMesh rather than a
+ * MeshView, which could not be created without starting the JavaFX toolkit.
+ */
+public class BaselineObjLoader {
 
-    public static MeshView loadObj(String path) {
+    public static TriangleMesh loadObj(String path) {
         TriangleMesh mesh = new TriangleMesh(VertexFormat.POINT_NORMAL_TEXCOORD);
         java.util.ArrayList<String> lines = readTextFile(path);
         lines.forEach((line) -> {
@@ -66,7 +70,7 @@ public class ObjLoader {
                 }
             }
         });
-        return new MeshView(mesh);
+        return mesh;
     }
 
     private static ArrayList<String> readTextFile(String path) {
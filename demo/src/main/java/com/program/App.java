@@ -1,32 +1,44 @@
 package com.program;
 
-import com.program.objects.tile.Tile;
+import com.program.engine.Engine;
+import com.program.engine.Metrics;
+import com.program.engine.TickScheduler;
+import com.program.render.FrameStats;
+import com.program.render.HexLayout;
+import com.program.render.RenderStats;
+import com.program.render.SceneRenderer;
+import com.program.render.Viewport;
 import com.program.sim.PopSim;
 
 import com.program.sim.GrowthSim;
 import com.program.sim.TerrainSim;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import com.program.util.ArrayList;
+import com.program.util.SeriesStore;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.application.ConditionalFeature;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.geometry.Point3D;
 import javafx.geometry.Pos;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.transform.Translate;
-import javafx.util.Duration;
 import javafx.scene.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.chart.*;
 import javafx.scene.paint.Color;
 import javafx.geometry.Orientation;
 import javafx.scene.text.Font;
 import javafx.scene.transform.Rotate;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class App extends Application {
 
     public static final double WINDOW_WIDTH = 1920;
@@ -35,17 +47,31 @@ public class App extends Application {
     private static final double TOOLBAR_HEIGHT = 50;
     private static final double SCROLL_SPEED = 0.01;
 
-    public static Group spatial = new Group(); // Contains all the 3D elements
+    private static Group spatial = new Group(); // Contains all the 3D elements
     private static SubScene subscene; // Contains the spatial group and a skybox
 
-    public static World world = new World();
-    private int graphTick = 0;
-    private final int MAX_GRAPH_TICK = 10;
-    private final XYChart.Series<Number, Number>[] SERIES // Contains the collective data points of all the graphs
-            = new XYChart.Series[world.POPULATIONS.length + world.YIELDS.length];
+    // The headless simulation core, which this application observes and drives in real time
+    public static Engine engine = new Engine();
+    // Runs every simulation off one tick counter on its own thread, which owns the world of the engine from then on
+    private static final TickScheduler scheduler = new TickScheduler(engine);
+    private final AtomicBoolean updateQueued = new AtomicBoolean(false); // Set while a scene update waits for the JavaFX thread
+    private long updateNanos = 0; // Spent updating the scene since the previous frame
+
+    // Toggle for printing frame times to the console every FrameStats.REPORT_INTERVAL frames, e.g. to compare the renderer
+    // modes. The same numbers are always published on the Render MBean
+    final boolean enableFrameStats = false;
+
+    // The populations followed by the yields, sampled every time the PopSim runs. 16384 samples are kept as they are, and
+    // the seven coarser levels reach back 268 million samples, in 10 MB
+    private final SeriesStore HISTORY = new SeriesStore(engine.getWorld().POPULATIONS.length + engine.getWorld().YIELDS.length,
+            1 << 14, 8);
+    private final double[] SAMPLE = new double[HISTORY.channels()]; // Only used on the simulation thread
+    private final ArrayList<SeriesChart> CHARTS = new ArrayList<>(); // One for each series of HISTORY
+    private final double CHART_WIDTH = SCROLLPANE_WIDTH - 20; // Leaves room for the scroll bar
+    private final double CHART_HEIGHT = 100;
 
     private final double DAY_LENGTH = 5.0 * 60000; // Multiplying by 60000 to convert from minutes to millis
-    private String period = "day";
+    private long lastSkyTick = -1; // The tick the sky was last coloured for
 
     private double lastX, lastY;
     private double zoom = 1.0;
@@ -66,12 +92,61 @@ public class App extends Application {
         }
 
         // Simulator Setup
-        final TerrainSim tsim = new TerrainSim(2.0);
-        final PopSim psim = new PopSim(2.0);
-        final GrowthSim gsim = new GrowthSim(4.0);
-
-        final Timeline grapher = new Timeline(new KeyFrame(Duration.seconds(psim.getUpdateRate()), (t) -> plotPoints()));
-        grapher.setCycleCount(Timeline.INDEFINITE);
+        final TerrainSim tsim = engine.TERRAIN_SIM;
+        final PopSim psim = engine.POP_SIM;
+        final GrowthSim gsim = engine.GROWTH_SIM;
+        final SceneRenderer renderer = new SceneRenderer(spatial, engine.subscribe(), scheduler);
+        // Watch the simulations and the renderer over JMX, e.g. in JConsole
+        final RenderStats renderStats = new RenderStats();
+        Metrics.registerEngine(engine, scheduler);
+        Metrics.register("Render", "SceneRenderer", renderStats);
+        // However many ticks run during a frame, the scene catches up on their changes only once
+        scheduler.setChangeListener(() -> {
+            if (updateQueued.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    updateQueued.set(false);
+                    long updateStart = System.nanoTime();
+                    renderer.update();
+                    long nanos = System.nanoTime() - updateStart;
+                    updateNanos += nanos;
+                    renderStats.sceneUpdated(nanos);
+                    for (SeriesChart chart : CHARTS) { // Each only redraws if its series has new samples
+                        chart.refresh();
+                    }
+                });
+            }
+        });
+        // The graphs follow the PopSim, which the populations and yields are checked by
+        scheduler.addTickListener(psim, () -> {
+            World world = engine.getWorld();
+            System.arraycopy(world.POPULATIONS, 0, SAMPLE, 0, world.POPULATIONS.length);
+            System.arraycopy(world.YIELDS, 0, SAMPLE, world.POPULATIONS.length, world.YIELDS.length);
+            HISTORY.add(SAMPLE);
+        });
+        final FrameStats frameStats = new FrameStats();
+        final AnimationTimer frameTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long updateStart = System.nanoTime();
+                renderStats.pulse(now);
+                if (subscene.getCamera() instanceof PerspectiveCamera) {
+                    // Where the free cam is relative to the tiles, which takes the zoom into account since it scales spatial
+                    renderer.setViewpoint(spatial.sceneToLocal(subscene.getCamera().localToScene(Point3D.ZERO)));
+                }
+                else { // Tiles appear the same size at any distance in the orthographic view
+                    renderer.setViewpoint(null);
+                }
+                renderer.setVisibleRange(Viewport.visibleRange(subscene, spatial)); // Only does any work once the camera moved
+                renderStats.setNodeCounts(renderer.getNodeCount(), renderer.getVisibleNodeCount());
+                updateNanos += System.nanoTime() - updateStart;
+                if (enableFrameStats && frameStats.frame(now, updateNanos)) {
+                    System.out.println(frameStats.report() + ", " + renderer.getNodeCount() + " meshes in " + renderer.getMode()
+                            + " mode, " + renderer.getVisibleNodeCount() + " top-level nodes in view");
+                }
+                updateNanos = 0;
+            }
+        };
+        frameTimer.start();
 
         // 3D Setup
         ParallelCamera pcam = new ParallelCamera(); // Orthographic projection
@@ -82,7 +157,7 @@ public class App extends Application {
 
         boolean isPOV = true;
         PerspectiveCamera fcam = new PerspectiveCamera(isPOV); // Perspective projection
-        Translate pos = new Translate(WINDOW_WIDTH / 2 - Tile.RADIUS, WINDOW_HEIGHT + Tile.RADIUS, -500);
+        Translate pos = new Translate(WINDOW_WIDTH / 2 - HexLayout.RADIUS, WINDOW_HEIGHT + HexLayout.RADIUS, -500);
         final Rotate tilt = new Rotate(60, Rotate.X_AXIS); // Rotate controlling the x-axis tilt
         Rotate spin = new Rotate(0, Rotate.Z_AXIS); // Rotate controlling the z-axis rotation, affected by movement
         fcam.getTransforms().addAll(pos, spin, tilt);
@@ -94,27 +169,28 @@ public class App extends Application {
         subscene.setCamera(pcam);
         final Color dayColor = Color.LIGHTSKYBLUE;
         final Color nightColor = Color.MIDNIGHTBLUE.darker();
-        final Color[] backgroundColor = {Color.LIGHTSKYBLUE};
-        final double clockTickRate = 100.0; // In millis
-        final double[] dt = {0.0};
-        subscene.setFill(backgroundColor[0]);
-
-        final Timeline clock = new Timeline(new KeyFrame(Duration.millis(clockTickRate), (t) -> {
-            if (period.equals("day")) {
-                backgroundColor[0] = dayColor.interpolate(nightColor, dt[0]);
-            } if (period.equals("night")) {
-                backgroundColor[0] = nightColor.interpolate(dayColor, dt[0]);
-            }
-            // Add a fraction of the DAY_LENGTH according to how fast the clock is ticking
-            dt[0] += clockTickRate / DAY_LENGTH;
-            subscene.setFill(backgroundColor[0]);
-            if (dt[0] >= 1) { // Reset dt when the interpolation is finished a full cycle
-                dt[0] = 0;
-                period = period.equals("day") ? "night" : "day"; // Ternary operator swaps the values "day" and "night"
+        final long dayTicks = Math.round(DAY_LENGTH / 1000 / TickScheduler.TICK_LENGTH);
+        subscene.setFill(dayColor);
+
+        // The day/night cycle follows the tick counter of the simulations, so it keeps in step with them
+        final AnimationTimer sky = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                long tick = scheduler.getTick();
+                if (tick == lastSkyTick || scheduler.isTurbo()) { // Hold the sky rather than flash through days in turbo mode
+                    return;
+                }
+                lastSkyTick = tick;
+                double dt = (double) (tick % dayTicks) / dayTicks; // How far into the current day or night
+                if (tick / dayTicks % 2 == 0) { // Day
+                    subscene.setFill(dayColor.interpolate(nightColor, dt));
+                }
+                else {
+                    subscene.setFill(nightColor.interpolate(dayColor, dt));
+                }
             }
-        }));
-        clock.setCycleCount(Timeline.INDEFINITE);
-        clock.play();
+        };
+        sky.start();
 
         // Camera movement
         subscene.setOnMousePressed(event -> {
@@ -176,8 +252,8 @@ public class App extends Application {
         subscene.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.SPACE) { // When spacebar is pressed
                 // Teleport the camera back to the starting position
-                pos.setX(WINDOW_WIDTH / 2 - Tile.RADIUS);
-                pos.setY(WINDOW_HEIGHT + Tile.RADIUS);
+                pos.setX(WINDOW_WIDTH / 2 - HexLayout.RADIUS);
+                pos.setY(WINDOW_HEIGHT + HexLayout.RADIUS);
                 pos.setZ(-500);
                 // Reset the rotation
                 spin.setAngle(0.0);
@@ -242,17 +318,17 @@ public class App extends Application {
         playButton.setOnAction(e -> {
             switch (simSelector.getValue()) {
                 case "All Sims":
-                    tsim.play(); gsim.play(); psim.play(); grapher.play();
+                    tsim.play(); gsim.play(); psim.play();
                     System.out.println("All Sims played.");
                     break;
                 case "TerrainSim":
                     tsim.play();
-                    psim.play(); grapher.play();
+                    psim.play();
                     System.out.println("TerrainSim played.");
                     break;
                 case "GrowthSim":
                     gsim.play();
-                    psim.play(); grapher.play();
+                    psim.play();
                     System.out.println("GrowthSim played.");
             }
             focusSubscene();
@@ -263,21 +339,21 @@ public class App extends Application {
         pauseButton.setOnAction(e -> {
             switch (simSelector.getValue()) {
                 case "All Sims":
-                    tsim.pause(); gsim.pause(); psim.pause(); grapher.pause();
+                    tsim.pause(); gsim.pause(); psim.pause();
                     System.out.println("All Sims paused.");
                     break;
                 case "TerrainSim":
                     tsim.pause();
                     // If gsim was also paused, pause the others since no changes can be made to the populations/yields
                     if (gsim.isPaused()) {
-                        psim.pause(); grapher.pause();
+                        psim.pause();
                     }
                     System.out.println("TerrainSim paused.");
                     break;
                 case "GrowthSim":
                     gsim.pause();
                     if (tsim.isPaused()) {
-                        psim.pause(); grapher.pause();
+                        psim.pause();
                     }
                     System.out.println("GrowthSim paused.");
             }
@@ -321,6 +397,13 @@ public class App extends Application {
             }
             focusSubscene();
         });
+        ToggleButton turboButton = new ToggleButton("Turbo");
+        turboButton.setOnAction(e -> {
+            // Run the ticks as fast as possible, past the speed limit of the speed up button
+            scheduler.setTurbo(turboButton.isSelected());
+            System.out.println("Turbo " + (turboButton.isSelected() ? "enabled." : "disabled."));
+            focusSubscene();
+        });
         Button fcamButton = new Button("Free Cam");
         fcamButton.setOnAction(e -> {
             subscene.setCamera(fcam);
@@ -335,11 +418,12 @@ public class App extends Application {
         });
         Button resetButton = new Button("Reset World");
         resetButton.setOnAction(e -> {
-            tsim.pause(); gsim.pause(); psim.pause(); grapher.pause();
-            world = new World();
-            spatial.getChildren().clear();
+            tsim.pause(); gsim.pause(); psim.pause();
+            scheduler.execute(() -> { // Clears the rendered tiles and adds the starting tile
+                engine.reset();
+                HISTORY.clear(); // After any samples of the old world that were still being taken
+            });
             initGraphs(vbox);
-            tsim.simulate(); // Add the starting tile
             focusSubscene();
         });
         Button collapseButton = new Button("Collapse Graphs");
@@ -368,14 +452,66 @@ public class App extends Application {
         CustomMenuItem feature2Item = new CustomMenuItem(feature2Box);
         feature2Item.setHideOnClick(false);
 
-        featureSelector.getItems().addAll(feature1Item, feature2Item);
+        CheckBox feature3Box = new CheckBox("Chunked Meshes");
+        feature3Box.setOnAction(e -> {
+            // Merge the tiles of each chunk into one mesh, which keeps the node count down in large worlds
+            renderer.setMode(feature3Box.isSelected() ? SceneRenderer.Mode.CHUNKS : SceneRenderer.Mode.TILES);
+            System.out.println("Chunked meshes " + (feature3Box.isSelected() ? "enabled." : "disabled."));
+        });
+        CustomMenuItem feature3Item = new CustomMenuItem(feature3Box);
+        feature3Item.setHideOnClick(false);
+
+        featureSelector.getItems().addAll(feature1Item, feature2Item, feature3Item);
+
+        FileChooser snapshotChooser = new FileChooser();
+        snapshotChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("World Snapshots", "*.world"));
+        Button saveButton = new Button("Save World");
+        saveButton.setOnAction(e -> {
+            File file = snapshotChooser.showSaveDialog(stage);
+            if (file != null) {
+                scheduler.execute(() -> { // Between two ticks, so the snapshot never holds half of one
+                    try {
+                        engine.save(file.toPath());
+                        System.out.println("World saved to `" + file + "`.");
+                    } catch (IOException ex) {
+                        System.out.println("Exception thrown when saving the world to `" + file + "`: " + ex.getMessage());
+                    }
+                });
+            }
+            focusSubscene();
+        });
+        Button loadButton = new Button("Load World");
+        loadButton.setOnAction(e -> {
+            File file = snapshotChooser.showOpenDialog(stage);
+            if (file != null) {
+                scheduler.execute(() -> { // Replaces the rendered tiles with those of the snapshot
+                    try {
+                        engine.load(file.toPath());
+                        HISTORY.clear();
+                        System.out.println("World loaded from `" + file + "`.");
+                    } catch (IOException ex) {
+                        System.out.println("Exception thrown when loading the world from `" + file + "`: " + ex.getMessage());
+                    }
+                    // The snapshot brings its own feature toggles, which the check boxes should show
+                    boolean evaporationAndDesertification = GrowthSim.enableEvaporationAndDesertification;
+                    boolean precipitation = GrowthSim.enablePrecipitation;
+                    Platform.runLater(() -> {
+                        feature1Box.setSelected(evaporationAndDesertification);
+                        feature2Box.setSelected(precipitation);
+                    });
+                });
+                initGraphs(vbox);
+            }
+            focusSubscene();
+        });
 
         HBox separator = new HBox();
-        separator.setPrefWidth(420); // Add some space between the speed control area and the rest of the buttons
+        separator.setPrefWidth(190); // Add some space between the speed control area and the rest of the buttons
         HBox separator2 = new HBox();
         separator2.setPrefWidth(675); // Add some more space until the feature selector
-        ToolBar toolbar = new ToolBar(simSelector, playButton, pauseButton, slowDownButton, speedUpButton,
-                resetButton, separator, fcamButton, pcamButton, featureSelector, separator2, collapseButton);
+        ToolBar toolbar = new ToolBar(simSelector, playButton, pauseButton, slowDownButton, speedUpButton, turboButton,
+                resetButton, saveButton, loadButton, separator, fcamButton, pcamButton, featureSelector, separator2,
+                collapseButton);
         toolbar.setOrientation(Orientation.HORIZONTAL);
         toolbar.setMinHeight(TOOLBAR_HEIGHT);
         borderPane.setTop(toolbar);
@@ -386,69 +522,23 @@ public class App extends Application {
         stage.setResizable(false);
         stage.show();
 
-        tsim.simulate(); // Add the starting tile
-    }
-
-    public static void renderTile(Group spatial, Tile tile) {
-        spatial.getChildren().add(tile.mesh);
-    }
-
-    public static void unrenderTile(Group spatial, Tile tile) {
-        spatial.getChildren().remove(tile.mesh);
+        scheduler.execute(engine::reset); // Add the starting tile
+        scheduler.start();
     }
 
     private void initGraphs(VBox vbox) {
-
-        // In the case that we are resetting the simulation, clear the existing SERIES
-        for (XYChart.Series<Number, Number> series : SERIES) {
-            if (series != null) {
-                series.getData().clear();
-            }
-        }
-        graphTick = 0;
-        // And remove all the plotted charts
-        for (int i = 0; i < vbox.getChildren().size(); i++) {
-            if (vbox.getChildren().get(i) instanceof AreaChart) {
-                vbox.getChildren().remove(i);
-            }
+        // In the case that we are resetting the simulation, remove the existing charts
+        for (SeriesChart chart : CHARTS) {
+            vbox.getChildren().remove(chart);
         }
+        CHARTS.clear();
 
-        for (int i = 1; i <= world.POPULATIONS.length + world.YIELDS.length; i++) {
-            NumberAxis xAxis = new NumberAxis();
-            xAxis.setForceZeroInRange(false); // Don't force 0 to always display since we will start removing old entries
-            xAxis.setMinorTickCount(0); // Don't display small ticks
-            xAxis.setTickLabelsVisible(false); // Don't display labels on the x-axis since they represent the number of ticks over an arbitrary period of time
-            NumberAxis yAxis = new NumberAxis();
-            yAxis.setForceZeroInRange(false); // Don't force 0 so the graph doesn't become incredibly stretched
-            yAxis.setMinorTickCount(0); // Don't display small ticks
-            AreaChart<Number, Number> chart = new AreaChart<>(xAxis, yAxis);
-            chart.setLegendVisible(false);
-
-            XYChart.Series<Number, Number> thisSeries = new XYChart.Series<>();
-            thisSeries.getData().add(new XYChart.Data<>(0, 0));
-            chart.getData().add(thisSeries);
-            SERIES[i - 1] = thisSeries;
-
-            chart.setPrefSize(vbox.getWidth(), 100);
+        for (int i = 1; i <= HISTORY.channels(); i++) {
+            SeriesChart chart = new SeriesChart(HISTORY, i - 1, CHART_WIDTH, CHART_HEIGHT);
+            CHARTS.add(chart);
             vbox.getChildren().add(i * 2 - 1, chart); // Insert after the corresponding label
         }
     }
 
-    private void plotPoints() {
-        graphTick++;
-        for (int i = 0; i < world.POPULATIONS.length; i++) { // Plot the population array
-            SERIES[i].getData().add(new XYChart.Data<>(graphTick, (int) world.POPULATIONS[i]));
-            if (graphTick > MAX_GRAPH_TICK) { // Start removing old data past the max tick
-                SERIES[i].getData().remove(0);
-            }
-        }
-        for (int i = world.POPULATIONS.length; i < world.POPULATIONS.length + world.YIELDS.length; i++) { // Plot the yields array
-            SERIES[i].getData().add(new XYChart.Data<>(graphTick, (int) world.YIELDS[i - world.POPULATIONS.length]));
-            if (graphTick > MAX_GRAPH_TICK) { // Start removing old data past the max tick
-                SERIES[i].getData().remove(0);
-            }
-        }
-    }
-
     private void focusSubscene() { subscene.requestFocus(); }
 }
@@ -0,0 +1,106 @@
+package com.program;
+
+import com.program.util.SeriesStore;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Draws one series of a SeriesStore as the band between its min and max with its mean on top, reading only as many points
+ * as the chart is wide. Nothing is held per sample, so a chart costs the same whether it shows a hundred samples or millions.
+ * <p>
+ * Clicking the chart cycles through the windows in WINDOWS.
+ */
+public class SeriesChart extends Canvas {
+
+    // The number of latest samples shown, where 0 shows everything since the world was reset
+    public static final long[] WINDOWS = {0, 10000, 1000, 100};
+
+    private static final Color LINE_COLOR = Color.web("#f3622d"); // The colour of the first series of the default charts
+    private static final Color BAND_COLOR = LINE_COLOR.deriveColor(0, 1, 1, 0.3);
+    private static final Color TEXT_COLOR = Color.GREY;
+    private static final double PADDING = 12; // Above and below the plot, for the labels
+
+    private final SeriesStore store;
+    private final int channel;
+    private int window = 0; // The index in WINDOWS
+    private long drawnSize = -1; // The size of the store when the chart was last drawn
+
+    // Reused for every query, one element per pixel of width
+    private final long[] times;
+    private final float[] mins, maxs, means;
+    private final double[] xs, ys;
+
+    /**
+     * @param store The store holding the series.
+     * @param channel The series to draw.
+     */
+    public SeriesChart(SeriesStore store, int channel, double width, double height) {
+        super(width, height);
+        this.store = store;
+        this.channel = channel;
+        int points = (int) width;
+        times = new long[points];
+        mins = new float[points];
+        maxs = new float[points];
+        means = new float[points];
+        xs = new double[points * 2];
+        ys = new double[points * 2];
+        setOnMouseClicked(e -> {
+            window = (window + 1) % WINDOWS.length;
+            drawnSize = -1;
+            refresh();
+        });
+    }
+
+    /**
+     * Redraws the chart if samples were added or dropped since it was last drawn. Cheap enough to be called every frame.
+     */
+    public void refresh() {
+        long size = store.size();
+        if (size == drawnSize) {
+            return;
+        }
+        drawnSize = size;
+        long from = WINDOWS[window] == 0 ? 0 : size - WINDOWS[window];
+        int points = store.query(channel, from, size, times.length, times, mins, maxs, means);
+
+        GraphicsContext gc = getGraphicsContext2D();
+        double width = getWidth(), height = getHeight();
+        gc.clearRect(0, 0, width, height);
+        if (points == 0) {
+            return;
+        }
+        float low = Float.MAX_VALUE, high = -Float.MAX_VALUE;
+        for (int i = 0; i < points; i++) {
+            low = Math.min(low, mins[i]);
+            high = Math.max(high, maxs[i]);
+        }
+        double range = high > low ? high - low : 1; // A flat series is drawn along the bottom
+        double scale = (height - 2 * PADDING) / range;
+        double step = points > 1 ? width / (points - 1) : 0;
+
+        // The band runs along the maxes from left to right and back along the mins
+        for (int i = 0; i < points; i++) {
+            xs[i] = xs[points * 2 - 1 - i] = i * step;
+            ys[i] = height - PADDING - (maxs[i] - low) * scale;
+            ys[points * 2 - 1 - i] = height - PADDING - (mins[i] - low) * scale;
+        }
+        gc.setFill(BAND_COLOR);
+        gc.fillPolygon(xs, ys, points * 2);
+        for (int i = 0; i < points; i++) {
+            ys[i] = height - PADDING - (means[i] - low) * scale;
+        }
+        gc.setStroke(LINE_COLOR);
+        gc.setLineWidth(1.5);
+        gc.strokePolyline(xs, ys, points);
+
+        gc.setFill(TEXT_COLOR);
+        gc.setFont(Font.font(10));
+        gc.fillText(String.valueOf((int) high), 2, PADDING - 2);
+        gc.fillText(String.valueOf((int) low), 2, height - 2);
+        String span = (size - times[0]) + " samples";
+        gc.fillText(span, width - 6 * span.length() - 2, height - 2);
+    }
+}
@@ -1,30 +1,186 @@
 package com.program;
 
+import com.program.engine.WorldObserver;
 import com.program.util.Queue;
 import com.program.util.TileGraph;
-import com.program.util.ArrayList;
+import com.program.util.ActiveSet;
+import com.program.util.IntArrayList;
+import com.program.util.LongObjectMap;
+import com.program.util.Rng;
 
 import com.program.objects.tile.*;
 
-import javafx.geometry.Point3D;
-
 public class World {
 
-    // The values in populations and yields correspond with the order of tile_types
+    // The values in populations and yields correspond with the order of tile_types, which is also the order of the TileType ordinals
+    // They are kept up to date as tiles are added and changed, and checked against a full recount by PopSim
     public final String[] TILE_TYPES = {"grass", "forest", "river", "village"};
     public final double[] POPULATIONS = {0.0, 0.0, 0.0, 0.0};
     public final double[] YIELDS = {0.0, 0.0, 0.0};
     // Ten entries to mimic a percentage probability for each tile type
-    public final String[] PROBABILITIES = {"grass", "grass", "grass", "grass", "grass", "forest", "forest", "river", "river", "village"};
+    public final TileType[] PROBABILITIES = {TileType.GRASS, TileType.GRASS, TileType.GRASS, TileType.GRASS, TileType.GRASS,
+            TileType.FOREST, TileType.FOREST, TileType.RIVER, TileType.RIVER, TileType.VILLAGE};
+
+    // The state of every tile, in columns indexed by tile id
+    public final TileStore TILES;
 
     public final Queue<Tile> FREE_TILES = new Queue<>();
-    public final ArrayList<Tile> OCCUPIED_TILES = new ArrayList<>();
+    public final IntArrayList OCCUPIED_TILES = new IntArrayList(); // Ids of the occupied tiles, in order of occupation
     public final TileGraph ADJACENCY_GRAPH = new TileGraph();
+    // Every tile in FREE_TILES or OCCUPIED_TILES, keyed by its packed axial coordinate
+    public final LongObjectMap<Tile> TILE_INDEX = new LongObjectMap<>();
+    // The occupied tiles GrowthSim still has to look at. A tile is woken whenever it or one of its neighbours changes.
+    public final ActiveSet ACTIVE_TILES = new ActiveSet();
+
+    // Every random decision about this world is drawn from here, so a seed reproduces the whole run
+    public final Rng RNG;
+
+    private final WorldObserver observer;
+    private long generation = 0; // The number of growth ticks this world has been through
+    private final int[] neighbourIds = new int[TileGraph.MAX_GRID_DEGREE]; // Reused when waking the neighbours of a tile
 
     public World() {
+        this(new WorldObserver() {}); // Nobody is watching
+    }
+
+    /**
+     * @param observer Notified whenever a simulation occupies or changes a tile of this world.
+     */
+    public World(WorldObserver observer) {
+        this(observer, Rng.unseeded());
+    }
+
+    /**
+     * @param observer Notified whenever a simulation occupies or changes a tile of this world.
+     * @param rng The generator all random decisions about this world are drawn from.
+     */
+    public World(WorldObserver observer, Rng rng) {
+        this.observer = observer;
+        RNG = rng;
+        TILES = new TileStore();
         // Center the starting grass tile
-        Tile startTile = new Tile(new Point3D(App.WINDOW_WIDTH / 2, App.WINDOW_HEIGHT / 2, 0), "grass");
+        Tile startTile = TILES.add(0, 0, TileType.GRASS, 0);
         FREE_TILES.enqueue(startTile);
+        TILE_INDEX.put(startTile.key(), startTile);
         ADJACENCY_GRAPH.addVertex(startTile);
     }
+
+    /**
+     * Rebuilds a world from its tiles instead of placing the starting tile, e.g. when it is read back from a WorldSnapshot.
+     * The tiles are linked in the adjacency graph in the order they were created, as TerrainSim links them, and the
+     * populations and yields are counted from the occupied tiles. Every occupied tile starts awake, which GrowthSim gives the
+     * same results for as for the tiles that were awake when the world was saved.
+     * @param observer Notified whenever a simulation occupies or changes a tile of this world.
+     * @param rng The generator all random decisions about this world are drawn from, i.e. one with the seed it had before.
+     * @param tiles Every tile of the world by id, none of which should be marked occupied yet. The world takes it over.
+     * @param occupied The ids of the occupied tiles, in the order they were occupied in.
+     * @param free The ids of the free tiles, in the order they were queued in.
+     * @param generation The number of growth ticks the world has been through.
+     */
+    public World(WorldObserver observer, Rng rng, TileStore tiles, int[] occupied, int[] free, long generation) {
+        this.observer = observer;
+        RNG = rng;
+        TILES = tiles;
+        this.generation = generation;
+        TILE_INDEX.ensureCapacity(tiles.size());
+        for (int id = 0; id < tiles.size(); id++) {
+            TILE_INDEX.put(tiles.key(id), tiles.tile(id));
+        }
+        for (int id : occupied) {
+            OCCUPIED_TILES.add(id);
+            tiles.markOccupied(id);
+            ACTIVE_TILES.add(id, OCCUPIED_TILES.size() - 1);
+            addToAggregates(tiles.type(id), tiles.stage(id), 1);
+        }
+        ADJACENCY_GRAPH.addVertices(tiles); // Once the occupied tiles are marked, since their vertices are the active ones
+        for (int id : free) {
+            FREE_TILES.enqueue(tiles.tile(id));
+        }
+    }
+
+    /**
+     * @return The number of growth ticks this world has been through, which is the tick the rolls of GrowthSim are drawn for.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Called by GrowthSim at the end of each of its ticks.
+     */
+    public void advanceGeneration() {
+        generation++;
+    }
+
+    /**
+     * Called by the simulations after a tile became occupied, i.e. was appended to OCCUPIED_TILES.
+     * Adds the tile to the populations and yields, and wakes it along with its neighbours.
+     */
+    public void notifyTileAdded(Tile tile) {
+        addToAggregates(tile.getType(), tile.getStage(), 1);
+        ACTIVE_TILES.add(tile.id, OCCUPIED_TILES.size() - 1);
+        wakeNeighbourhood(tile.id);
+        observer.tileAdded(tile);
+    }
+
+    /**
+     * Called by the simulations after the type, stage or rotation of an occupied tile changed. Moves the tile's share of the
+     * populations and yields from its old state to its new one, and wakes the tile along with its neighbours.
+     * @param id The id of the tile.
+     * @param oldState The packed state of the tile before the change, see TileStore.state.
+     */
+    public void notifyTileChanged(int id, int oldState) {
+        addToAggregates(TileStore.stateType(oldState), TileStore.stateStage(oldState), -1);
+        addToAggregates(TILES.type(id), TILES.stage(id), 1);
+        wakeNeighbourhood(id);
+        observer.tileChanged(TILES.tile(id), oldState);
+    }
+
+    /**
+     * Sets the type and stage of an occupied tile and notifies the change.
+     */
+    public void changeTile(int id, TileType type, int stage) {
+        int oldState = TILES.state(id);
+        TILES.setType(id, type);
+        TILES.setStage(id, stage);
+        notifyTileChanged(id, oldState);
+    }
+
+    /**
+     * Sets the rotation of an occupied tile and notifies the change.
+     * @param rotation The index of the rotation in TileStore.ROTATIONS.
+     */
+    public void rotateTile(int id, int rotation) {
+        int oldState = TILES.state(id);
+        TILES.setRotation(id, rotation);
+        notifyTileChanged(id, oldState);
+    }
+
+    /**
+     * Marks an occupied tile as abandoned and notifies the change.
+     */
+    public void markAbandoned(int id) {
+        int oldState = TILES.state(id);
+        TILES.markAbandoned(id);
+        notifyTileChanged(id, oldState);
+    }
+
+    // The rules of a tile only look at the tile and its neighbours, so they are the only tiles a change can wake
+    private void wakeNeighbourhood(int id) {
+        ACTIVE_TILES.wake(id);
+        int count = ADJACENCY_GRAPH.collectAdjacentActiveIds(TILES.key(id), neighbourIds);
+        for (int i = 0; i < count; i++) {
+            ACTIVE_TILES.wake(neighbourIds[i]);
+        }
+    }
+
+    // The aggregates hold whole multiples of the per-stage amounts, so adding and removing them never drifts
+    private void addToAggregates(TileType type, int stage, int sign) {
+        if (type.hasPopulation()) {
+            POPULATIONS[type.ordinal()] += sign * stage * TileStore.POPULATION_PER_STAGE;
+        }
+        if (type.hasYield()) {
+            YIELDS[type.ordinal()] += sign * stage * TileStore.YIELD_PER_STAGE;
+        }
+    }
 }
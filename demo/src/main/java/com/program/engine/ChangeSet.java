@@ -0,0 +1,114 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.util.IntArrayList;
+
+import java.util.Arrays;
+
+/**
+ * The tiles that changed since a consumer last caught up, as (tile id, q, r, old state, new state) entries. Several changes to
+ * the same tile collapse into one entry that keeps the oldest old state and the newest new state, so a consumer never sees
+ * the states in between. States are packed as in TileStore.state.
+ * <p>
+ * The coordinates are copied when the change is recorded, so a consumer on another thread never has to read the world,
+ * whose columns the simulations may be growing at the same time.
+ */
+public class ChangeSet {
+
+    // The old state of a tile that became occupied during the window of the set
+    public static final int NOT_OCCUPIED = -1;
+
+    private final IntArrayList ids = new IntArrayList();
+    private final IntArrayList qs = new IntArrayList();
+    private final IntArrayList rs = new IntArrayList();
+    private final IntArrayList oldStates = new IntArrayList();
+    private final IntArrayList newStates = new IntArrayList();
+    private int[] positions = new int[0]; // Position + 1 of each tile id in the entries, or 0 if it has none
+
+    private World world;
+    private boolean reset = false;
+
+    /**
+     * @return The number of entries, each for a different tile.
+     */
+    public int size() { return ids.size(); }
+
+    public boolean isEmpty() { return ids.isEmpty(); }
+
+    public int tileId(int entry) { return ids.get(entry); }
+
+    /**
+     * @return The axial column of the tile.
+     */
+    public int q(int entry) { return qs.get(entry); }
+
+    /**
+     * @return The axial row of the tile.
+     */
+    public int r(int entry) { return rs.get(entry); }
+
+    /**
+     * @return The state of the tile before the first change in this set, or NOT_OCCUPIED if it was added in this set.
+     */
+    public int oldState(int entry) { return oldStates.get(entry); }
+
+    /**
+     * @return The state of the tile after the last change in this set.
+     */
+    public int newState(int entry) { return newStates.get(entry); }
+
+    /**
+     * @return True if the entry changed nothing, e.g. when a tile grew and then mutated back to its old state.
+     */
+    public boolean isUnchanged(int entry) { return oldStates.get(entry) == newStates.get(entry); }
+
+    /**
+     * @return The world the tile ids refer to, which is only safe to read on the thread that changes it.
+     */
+    public World getWorld() { return world; }
+
+    /**
+     * @return True if the engine replaced its world since the previous set, in which case everything shown of the old world
+     * should be dropped. The entries then hold every occupied tile of the new world, as added in this set.
+     */
+    public boolean isReset() { return reset; }
+
+    void record(int id, int q, int r, int oldState, int newState) {
+        if (id >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(id + 1, positions.length * 2));
+        }
+        int position = positions[id] - 1;
+        if (position >= 0) {
+            newStates.set(position, newState); // Keep the oldest old state
+            return;
+        }
+        positions[id] = ids.size() + 1;
+        ids.add(id);
+        qs.add(q);
+        rs.add(r);
+        oldStates.add(oldState);
+        newStates.add(newState);
+    }
+
+    void reset(World world) {
+        clear();
+        this.world = world;
+        reset = true;
+    }
+
+    void setWorld(World world) {
+        this.world = world;
+    }
+
+    void clear() {
+        for (int i = 0; i < ids.size(); i++) {
+            positions[ids.get(i)] = 0;
+        }
+        ids.clear();
+        qs.clear();
+        rs.clear();
+        oldStates.clear();
+        newStates.clear();
+        reset = false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.objects.tile.Tile;
+import com.program.util.ArrayList;
+
+/**
+ * Publishes the changes of the engine's world to any number of subscriptions. Each subscription collects the changes in its
+ * own ChangeSet until it is drained, so a consumer can catch up once per frame, or fall behind, and still only see the latest
+ * state of every tile. Changes may be published and drained on different threads.
+ */
+public class ChangeStream implements WorldObserver {
+
+    private final ArrayList<Subscription> subscriptions = new ArrayList<>();
+    private World world;
+
+    ChangeStream(World world) {
+        this.world = world;
+    }
+
+    public synchronized Subscription subscribe() {
+        Subscription subscription = new Subscription(world);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public synchronized void unsubscribe(Subscription subscription) {
+        subscriptions.removeFirst(subscription);
+    }
+
+    @Override
+    public synchronized void tileAdded(Tile tile) {
+        int state = world.TILES.state(tile.id), q = world.TILES.q(tile.id), r = world.TILES.r(tile.id);
+        for (Subscription subscription : subscriptions) subscription.record(tile.id, q, r, ChangeSet.NOT_OCCUPIED, state);
+    }
+
+    @Override
+    public synchronized void tileChanged(Tile tile, int oldState) {
+        int state = world.TILES.state(tile.id), q = world.TILES.q(tile.id), r = world.TILES.r(tile.id);
+        for (Subscription subscription : subscriptions) subscription.record(tile.id, q, r, oldState, state);
+    }
+
+    @Override
+    public synchronized void worldReset(World world) {
+        this.world = world;
+        for (Subscription subscription : subscriptions) subscription.reset(world);
+        // A world loaded from a snapshot starts out with occupied tiles, which no tileAdded is called for
+        for (int rank = 0; rank < world.OCCUPIED_TILES.size(); rank++) {
+            int id = world.OCCUPIED_TILES.get(rank);
+            int state = world.TILES.state(id), q = world.TILES.q(id), r = world.TILES.r(id);
+            for (Subscription subscription : subscriptions) subscription.record(id, q, r, ChangeSet.NOT_OCCUPIED, state);
+        }
+    }
+
+    /**
+     * The changes collected for one consumer.
+     */
+    public static class Subscription {
+
+        private ChangeSet pending = new ChangeSet();
+        private ChangeSet drained = new ChangeSet(); // Handed to the consumer, swapped with pending on every drain
+
+        private Subscription(World world) {
+            pending.setWorld(world);
+        }
+
+        /**
+         * Takes every change collected since the previous drain.
+         * @return The changes, which stay valid until the next call to drain.
+         */
+        public synchronized ChangeSet drain() {
+            ChangeSet changes = pending;
+            drained.clear();
+            drained.setWorld(changes.getWorld());
+            pending = drained;
+            drained = changes;
+            return changes;
+        }
+
+        private synchronized void record(int id, int q, int r, int oldState, int newState) {
+            pending.record(id, q, r, oldState, newState);
+        }
+
+        private synchronized void reset(World world) {
+            pending.reset(world);
+        }
+    }
+}
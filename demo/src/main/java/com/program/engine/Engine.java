@@ -0,0 +1,141 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.objects.tile.Tile;
+import com.program.sim.GrowthSim;
+import com.program.sim.PopSim;
+import com.program.sim.Sim;
+import com.program.sim.TerrainSim;
+import com.program.util.ArrayList;
+import com.program.util.Rng;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Owns the world and the simulations that change it, without depending on JavaFX.
+ * The engine, sim, objects.tile and util packages make up the headless core, which can be stepped from plain Java with step(n).
+ * Front ends such as App observe it through WorldObserver and may drive each Sim in real time through a SimClock,
+ * or from a single TickScheduler.
+ */
+public class Engine {
+
+    public final TerrainSim TERRAIN_SIM = new TerrainSim(2.0);
+    public final PopSim POP_SIM = new PopSim(2.0);
+    public final GrowthSim GROWTH_SIM = new GrowthSim(4.0);
+
+    private final ArrayList<WorldObserver> observers = new ArrayList<>();
+    private final ChangeStream changes;
+    private volatile World world; // Read by front ends on other threads than the one stepping it
+
+    // Forwards the changes of the current world to the change stream and every observer of the engine
+    private final WorldObserver dispatcher = new WorldObserver() {
+        public void tileAdded(Tile tile) {
+            changes.tileAdded(tile);
+            for (WorldObserver observer : observers) observer.tileAdded(tile);
+        }
+
+        public void tileChanged(Tile tile, int oldState) {
+            changes.tileChanged(tile, oldState);
+            for (WorldObserver observer : observers) observer.tileChanged(tile, oldState);
+        }
+    };
+
+    /**
+     * Creates an engine with an empty world. Call reset once the observers are added to place the starting tile.
+     */
+    public Engine() {
+        world = new World(dispatcher);
+        changes = new ChangeStream(world);
+    }
+
+    public World getWorld() { return world; }
+
+    /**
+     * Subscribes to the changes of the world, which collect until the subscription is drained. Unlike an observer, a
+     * subscriber only sees the latest state of each tile and can catch up on whatever thread and schedule suits it.
+     * @return The new subscription.
+     */
+    public ChangeStream.Subscription subscribe() {
+        return changes.subscribe();
+    }
+
+    public void unsubscribe(ChangeStream.Subscription subscription) {
+        changes.unsubscribe(subscription);
+    }
+
+    public void addObserver(WorldObserver observer) {
+        observers.add(observer);
+    }
+
+    public void removeObserver(WorldObserver observer) {
+        observers.removeFirst(observer);
+    }
+
+    /**
+     * Replaces the world with a new one and occupies its starting tile.
+     */
+    public void reset() {
+        reset(Rng.unseeded());
+    }
+
+    /**
+     * Replaces the world with a new one that is generated from a seed, so that stepping it always gives the same results.
+     * @param seed The seed every random decision of the world is drawn from.
+     */
+    public void reset(long seed) {
+        reset(new Rng(seed));
+    }
+
+    private void reset(Rng rng) {
+        replaceWorld(new World(dispatcher, rng));
+        TERRAIN_SIM.simulate(world); // Add the starting tile
+    }
+
+    /**
+     * Writes the world and the settings of the sims to a snapshot file, see WorldSnapshot.
+     * @param path The path of the snapshot file, which is overwritten if it exists.
+     */
+    public void save(Path path) throws IOException {
+        WorldSnapshot.write(path, this);
+    }
+
+    /**
+     * Replaces the world with the one saved in a snapshot file, and gives the sims the settings they were saved with. If the
+     * file cannot be read, the world and the sims are left as they were.
+     * @param path The path of the snapshot file.
+     */
+    public void load(Path path) throws IOException {
+        WorldSnapshot snapshot = WorldSnapshot.read(path, dispatcher);
+        snapshot.applySettings(this);
+        replaceWorld(snapshot.getWorld());
+    }
+
+    private void replaceWorld(World world) {
+        this.world = world;
+        changes.worldReset(world);
+        for (WorldObserver observer : observers) observer.worldReset(world);
+    }
+
+    /**
+     * Advances a single simulation by one tick, e.g. when its clock fires.
+     * @param sim The simulation to advance.
+     */
+    public void simulate(Sim sim) {
+        long start = System.nanoTime();
+        sim.simulate(world);
+        sim.getStats().record(System.nanoTime() - start);
+    }
+
+    /**
+     * Advances the world as fast as possible, ignoring the real-time clocks and the play/pause state of the sims.
+     * @param ticks The number of ticks, each of which runs the terrain, growth and population sims once in that order.
+     */
+    public void step(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            simulate(TERRAIN_SIM);
+            simulate(GROWTH_SIM);
+            simulate(POP_SIM);
+        }
+    }
+}
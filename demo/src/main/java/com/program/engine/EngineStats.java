@@ -0,0 +1,38 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.util.RateMeter;
+
+/**
+ * Reads the gauges of EngineStatsMBean straight from the engine whenever they are asked for, so nothing is recorded on
+ * the simulation thread. The counts are plain reads of another thread's fields and may be a tick behind.
+ */
+public class EngineStats implements EngineStatsMBean {
+
+    private final Engine engine;
+    private final TickScheduler scheduler;
+    private final RateMeter rate = new RateMeter();
+
+    /**
+     * @param engine The engine to watch.
+     * @param scheduler The scheduler driving the engine, or null if there is none.
+     */
+    public EngineStats(Engine engine, TickScheduler scheduler) {
+        this.engine = engine;
+        this.scheduler = scheduler;
+    }
+
+    public int getOccupiedTiles() { return engine.getWorld().OCCUPIED_TILES.size(); }
+
+    public int getFreeTiles() { return engine.getWorld().FREE_TILES.size(); }
+
+    public int getGraphOrder() { return engine.getWorld().ADJACENCY_GRAPH.order(); }
+
+    public int getGraphSize() { return engine.getWorld().ADJACENCY_GRAPH.size(); }
+
+    public long getTick() { return scheduler == null ? 0 : scheduler.getTick(); }
+
+    public double getTicksPerSecond() { return rate.perSecond(getTick()); }
+
+    public boolean isTurbo() { return scheduler != null && scheduler.isTurbo(); }
+}
@@ -0,0 +1,27 @@
+package com.program.engine;
+
+/**
+ * The size of the engine's world and how fast its scheduler ticks, as seen over JMX.
+ */
+public interface EngineStatsMBean {
+
+    int getOccupiedTiles();
+
+    int getFreeTiles();
+
+    /**
+     * @return The number of vertices of the adjacency graph.
+     */
+    int getGraphOrder();
+
+    /**
+     * @return The number of edges of the adjacency graph.
+     */
+    int getGraphSize();
+
+    long getTick();
+
+    double getTicksPerSecond();
+
+    boolean isTurbo();
+}
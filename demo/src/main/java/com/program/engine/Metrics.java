@@ -0,0 +1,49 @@
+package com.program.engine;
+
+import com.program.sim.Sim;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers the stats of the engine and its front ends as MBeans with the platform MBean server, so that a running
+ * simulator can be watched in JConsole or scraped over JMX. Every MBean is named com.program:type=...,name=...
+ */
+public class Metrics {
+
+    public static final String DOMAIN = "com.program";
+
+    /**
+     * Registers the stats of every Sim of an engine and of the engine itself.
+     * @param scheduler The scheduler driving the engine, or null if there is none.
+     */
+    public static void registerEngine(Engine engine, TickScheduler scheduler) {
+        for (Sim sim : new Sim[] {engine.TERRAIN_SIM, engine.GROWTH_SIM, engine.POP_SIM}) {
+            register("Sim", sim.getClass().getSimpleName(), sim.getStats());
+        }
+        register("Engine", "Engine", new EngineStats(engine, scheduler));
+    }
+
+    /**
+     * Registers an MBean, replacing any that was registered under the same name. A failure is reported but not thrown,
+     * since the simulator runs the same without its metrics.
+     * @param type The kind of thing measured, e.g. "Sim".
+     * @param name Which one of its kind, e.g. "GrowthSim".
+     * @param mbean An object implementing an interface named after its class with the suffix MBean.
+     */
+    public static void register(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        }
+        catch (JMException e) {
+            System.out.println("Exception thrown when registering the metrics of " + name + ": " + e.getMessage());
+        }
+    }
+}
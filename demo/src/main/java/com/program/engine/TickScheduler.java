@@ -0,0 +1,224 @@
+package com.program.engine;
+
+import com.program.sim.Sim;
+import com.program.util.ArrayList;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances the simulations of an engine on one clock, counted in ticks of TICK_LENGTH, on a thread of their own so that a
+ * long tick does not hold up the front end. The world belongs to that thread: anything else that changes it, such as a
+ * reset, should be handed to execute, and front ends should only read it through the changes they subscribe to.
+ * <p>
+ * Each Sim runs on the ticks that are a multiple of its divisor, which follows from the rate set by its speed controls
+ * (see Sim.getRate), so at 1x the terrain sim runs every 8 ticks and the growth sim every 16. Within a tick the sims run in
+ * a fixed order, as in Engine.step, and a paused Sim is skipped. Since every Sim runs off the same counter, none of them
+ * drift against each other however long the simulation runs.
+ * <p>
+ * In turbo mode the ticks run back to back, as fast as the thread can manage, and the change listener is only told once
+ * per FRAME_NANOS, so the front end samples the world at its display rate instead of keeping up with every tick.
+ */
+public class TickScheduler implements Executor {
+
+    public static final double TICK_LENGTH = 0.25; // In seconds, the period of the fastest a Sim can be set to run at
+    public static final long FRAME_NANOS = 1_000_000_000L / 60; // How long a batch of turbo ticks runs for
+
+    private final Engine engine;
+    private final Sim[] sims; // In the order they run in within a tick
+    private final ArrayList<ArrayList<Runnable>> tickListeners = new ArrayList<>(); // By the index of their Sim
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "simulation");
+        thread.setDaemon(true); // Does not keep the application alive once its window is closed
+        return thread;
+    });
+    private volatile Runnable changeListener = () -> {};
+
+    private volatile long tick = 0; // The number of ticks since the scheduler was started
+    private volatile boolean turbo = false;
+    private volatile int generation = 0; // Bumped whenever the schedule changes, which ends the loop of a previous one
+    private ScheduledFuture<?> ticks = null; // Null until started and while in turbo mode
+
+    /**
+     * Creates a scheduler for the terrain, growth and population sims of an engine, run in that order. Call start to begin
+     * ticking.
+     */
+    public TickScheduler(Engine engine) {
+        this.engine = engine;
+        sims = new Sim[] {engine.TERRAIN_SIM, engine.GROWTH_SIM, engine.POP_SIM};
+        for (int i = 0; i < sims.length; i++) {
+            tickListeners.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Starts ticking. Listeners should be added before this is called.
+     */
+    public synchronized void start() {
+        if (generation == 0) {
+            schedule();
+        }
+    }
+
+    /**
+     * @param listener Called on the simulation thread whenever the world may have changed, after a tick in which a Sim ran
+     * or a task handed to execute. In turbo mode it is called once per batch of ticks instead.
+     */
+    public void setChangeListener(Runnable listener) {
+        changeListener = listener;
+    }
+
+    /**
+     * @param sim A simulation of the engine.
+     * @param listener Called on the simulation thread every time the Sim has run, e.g. to sample what it changed.
+     */
+    public void addTickListener(Sim sim, Runnable listener) {
+        for (int i = 0; i < sims.length; i++) {
+            if (sims[i] == sim) {
+                tickListeners.get(i).add(listener);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Sim is not run by this scheduler: " + sim);
+    }
+
+    /**
+     * @return The number of ticks since the scheduler was started, which every Sim is timed by.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isTurbo() {
+        return turbo;
+    }
+
+    /**
+     * @param turbo True to run the ticks as fast as possible, regardless of TICK_LENGTH. The Sims keep their divisors, so
+     * they keep running at the same rates relative to each other.
+     */
+    public synchronized void setTurbo(boolean turbo) {
+        if (turbo != this.turbo) {
+            this.turbo = turbo;
+            if (generation != 0) { // Started
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * @param sim A simulation of the engine.
+     * @return The number of ticks between two runs of the Sim at its current speed.
+     */
+    public static long divisor(Sim sim) {
+        return Math.max(1, Math.round(sim.getRate() / TICK_LENGTH));
+    }
+
+    /**
+     * Runs a task on the simulation thread, after the ticks and tasks that came before it.
+     */
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            run(task);
+            changeListener.run();
+        });
+    }
+
+    /**
+     * Stops the simulation thread once the tick or task it is running is done.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Replaces the current schedule with one for the current mode
+    private void schedule() {
+        if (ticks != null) {
+            ticks.cancel(false); // Lets a tick that already started finish
+            ticks = null;
+        }
+        int run = ++generation;
+        if (turbo) {
+            executor.execute(() -> runTurbo(run));
+        }
+        else {
+            long period = Math.round(TICK_LENGTH * 1e9); // In nanos
+            ticks = executor.scheduleAtFixedRate(() -> {
+                if (tick()) {
+                    changeListener.run();
+                }
+            }, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Runs ticks for one frame, then queues the next batch behind any tasks handed to execute in the meantime
+    private void runTurbo(int run) {
+        if (run != generation) { // Turbo mode ended
+            return;
+        }
+        long start = System.nanoTime();
+        boolean ran = false;
+        // Checked before the first tick too, so that a paused world, and its tick counter, stay as they are
+        while (isAnyPlaying() && System.nanoTime() - start < FRAME_NANOS) {
+            ran |= tick();
+        }
+        if (ran) {
+            changeListener.run();
+        }
+        if (isAnyPlaying()) {
+            executor.execute(() -> runTurbo(run));
+        }
+        else { // Every Sim is paused, so there is nothing to hurry
+            executor.schedule(() -> runTurbo(run), Math.round(TICK_LENGTH * 1e9), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean isAnyPlaying() {
+        for (Sim sim : sims) {
+            if (!sim.isPaused()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the Sims that are due this tick, then advances the tick counter.
+     * @return True if any Sim ran.
+     */
+    private boolean tick() {
+        long current = tick;
+        boolean ran = false;
+        for (int i = 0; i < sims.length; i++) {
+            Sim sim = sims[i];
+            if (sim.isPaused() || current % divisor(sim) != 0) {
+                continue;
+            }
+            try {
+                engine.simulate(sim);
+                for (Runnable listener : tickListeners.get(i)) {
+                    listener.run();
+                }
+            }
+            catch (RuntimeException e) { // A failed tick must not stop the ticks that come after it
+                e.printStackTrace();
+            }
+            ran = true;
+        }
+        tick = current + 1;
+        return ran;
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        }
+        catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
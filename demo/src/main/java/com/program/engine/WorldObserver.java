@@ -0,0 +1,32 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.objects.tile.Tile;
+
+/**
+ * Receives the changes the simulations make to a world as they happen, in the middle of a tick.
+ * Every method is called on the thread that runs the simulation. Consumers that only need to catch up now and then, such as
+ * the renderer, should subscribe to the engine's ChangeStream instead.
+ */
+public interface WorldObserver {
+
+    /**
+     * Called when a tile becomes occupied.
+     * @param tile The newly occupied tile.
+     */
+    default void tileAdded(Tile tile) {}
+
+    /**
+     * Called when the type, stage or rotation of an occupied tile changed.
+     * @param tile The changed tile.
+     * @param oldState The packed state of the tile before the change, see TileStore.state.
+     */
+    default void tileChanged(Tile tile, int oldState) {}
+
+    /**
+     * Called when the engine replaced its world with a new one. A new world is empty, but one loaded from a snapshot already
+     * holds occupied tiles, which tileAdded is not called for.
+     * @param world The new world.
+     */
+    default void worldReset(World world) {}
+}
@@ -0,0 +1,227 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import com.program.sim.GrowthSim;
+import com.program.sim.Sim;
+import com.program.util.Rng;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A single binary file holding everything needed to carry on simulating a world: its seed and growth tick, its tiles, and
+ * the settings of the engine's simulations. Only the tiles themselves are stored. The index, adjacency graph, populations and
+ * yields follow from them and are rebuilt when the snapshot is read, and meshes are left to the renderer as usual.
+ * <p>
+ * Layout (little-endian): magic, version, seed, generation, then the rate multiplier and paused flag of the terrain, growth
+ * and population sims, the growth mode and the two feature toggles of GrowthSim, then the tile, occupied and free counts,
+ * one record per tile in id order (q, r, type, first type, stage, rotation, abandoned), the ids of the occupied tiles in the
+ * order they were occupied in and the ids of the free tiles in the order they were queued in.
+ * <p>
+ * Snapshots are written through a buffered channel and read back through a memory-mapped file. Use Engine.save and
+ * Engine.load rather than this class directly.
+ */
+public class WorldSnapshot {
+
+    private static final int MAGIC = 0x31534E57; // "WNS1"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16; // The size of the chunks the file is written in
+    private static final int SIMS = 3; // The terrain, growth and population sims, in the order their settings are written in
+    private static final int TILE_BYTES = 2 * Integer.BYTES + 5; // q, r, type, first type, stage, rotation, abandoned
+
+    private final World world;
+    private final double[] rateMultipliers;
+    private final boolean[] paused;
+    private final GrowthSim.Mode growthMode;
+    private final boolean precipitation, evaporationAndDesertification;
+
+    private WorldSnapshot(World world, double[] rateMultipliers, boolean[] paused, GrowthSim.Mode growthMode,
+                          boolean precipitation, boolean evaporationAndDesertification) {
+        this.world = world;
+        this.rateMultipliers = rateMultipliers;
+        this.paused = paused;
+        this.growthMode = growthMode;
+        this.precipitation = precipitation;
+        this.evaporationAndDesertification = evaporationAndDesertification;
+    }
+
+    /**
+     * @return The world read from the snapshot.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gives the simulations of an engine the settings they had when the snapshot was written.
+     * @param engine The engine to set up.
+     */
+    public void applySettings(Engine engine) {
+        Sim[] sims = sims(engine);
+        for (int i = 0; i < sims.length; i++) {
+            sims[i].setRateMultiplier(rateMultipliers[i]);
+            if (paused[i]) {
+                sims[i].pause();
+            }
+            else {
+                sims[i].play();
+            }
+        }
+        engine.GROWTH_SIM.setMode(growthMode);
+        GrowthSim.enablePrecipitation = precipitation;
+        GrowthSim.enableEvaporationAndDesertification = evaporationAndDesertification;
+    }
+
+    /**
+     * Writes a snapshot of the world of an engine and the settings of its simulations. Should be called on the thread that
+     * steps the engine, between ticks.
+     * @param path The path of the snapshot file, which is overwritten if it exists.
+     * @param engine The engine whose world is saved.
+     */
+    public static void write(Path path, Engine engine) throws IOException {
+        World world = engine.getWorld();
+        TileStore tiles = world.TILES;
+        if (path.getParent() != null) {
+            path.getParent().toFile().mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(world.RNG.getSeed()).putLong(world.getGeneration());
+            for (Sim sim : sims(engine)) {
+                buffer.putDouble(sim.getRateMultiplier()).put(toByte(sim.isPaused()));
+            }
+            buffer.put((byte) engine.GROWTH_SIM.getMode().ordinal());
+            buffer.put(toByte(GrowthSim.enablePrecipitation)).put(toByte(GrowthSim.enableEvaporationAndDesertification));
+            buffer.putInt(tiles.size()).putInt(world.OCCUPIED_TILES.size()).putInt(world.FREE_TILES.size());
+
+            for (int id = 0; id < tiles.size(); id++) {
+                if (buffer.remaining() < TILE_BYTES) {
+                    drain(buffer, channel);
+                }
+                buffer.putInt(tiles.q(id)).putInt(tiles.r(id));
+                buffer.put((byte) tiles.type(id).ordinal()).put((byte) tiles.firstType(id).ordinal());
+                buffer.put((byte) tiles.stage(id)).put((byte) tiles.rotation(id)).put(toByte(tiles.isAbandoned(id)));
+            }
+            for (int rank = 0; rank < world.OCCUPIED_TILES.size(); rank++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(buffer, channel);
+                }
+                buffer.putInt(world.OCCUPIED_TILES.get(rank));
+            }
+            for (int i = 0; i < world.FREE_TILES.size(); i++) {
+                if (buffer.remaining() < Integer.BYTES) {
+                    drain(buffer, channel);
+                }
+                buffer.putInt(world.FREE_TILES.get(i).id);
+            }
+            drain(buffer, channel);
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot and rebuilds the world it holds. Nothing is changed until the whole file has been read, so a
+     * snapshot that cannot be read leaves the engine as it was.
+     * @param path The path of the snapshot file.
+     * @param observer Notified whenever a simulation occupies or changes a tile of the world.
+     * @return The snapshot, holding the rebuilt world and the settings of the simulations.
+     */
+    public static WorldSnapshot read(Path path, WorldObserver observer) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " world snapshot");
+            }
+            Rng rng = new Rng(buffer.getLong());
+            long generation = buffer.getLong();
+            double[] rateMultipliers = new double[SIMS];
+            boolean[] paused = new boolean[SIMS];
+            for (int i = 0; i < SIMS; i++) {
+                rateMultipliers[i] = buffer.getDouble();
+                paused[i] = buffer.get() != 0;
+            }
+            GrowthSim.Mode growthMode = GrowthSim.Mode.values()[buffer.get()];
+            boolean precipitation = buffer.get() != 0;
+            boolean evaporationAndDesertification = buffer.get() != 0;
+            int tileCount = buffer.getInt(), occupiedCount = buffer.getInt(), freeCount = buffer.getInt();
+            if (tileCount < 0 || occupiedCount < 0 || freeCount < 0 || occupiedCount + freeCount != tileCount) {
+                throw new IOException("Corrupt world snapshot: " + tileCount + " tiles, " + occupiedCount + " occupied, "
+                        + freeCount + " free");
+            }
+
+            TileStore tiles = new TileStore(tileCount);
+            for (int id = 0; id < tileCount; id++) {
+                int q = buffer.getInt(), r = buffer.getInt();
+                TileType type = TileType.VALUES[buffer.get()], firstType = TileType.VALUES[buffer.get()];
+                int stage = buffer.get(), rotation = buffer.get();
+                boolean abandoned = buffer.get() != 0;
+                if (rotation < 0 || rotation >= TileStore.ROTATIONS.length) {
+                    throw new IOException("Corrupt world snapshot: tile " + id + " has rotation " + rotation);
+                }
+                if (stage < 1 || stage > TileStore.MAX_STAGE) { // Every type grows through the same stages
+                    throw new IOException("Corrupt world snapshot: tile " + id + " has stage " + stage);
+                }
+                tiles.add(q, r, firstType, rotation);
+                tiles.setType(id, type);
+                tiles.setStage(id, stage);
+                if (abandoned) {
+                    tiles.markAbandoned(id);
+                }
+            }
+            boolean[] listed = new boolean[tileCount]; // Every tile is either occupied or free, and listed once
+            int[] occupied = readIds(buffer, occupiedCount, listed);
+            int[] free = readIds(buffer, freeCount, listed);
+            World world = new World(observer, rng, tiles, occupied, free, generation);
+            return new WorldSnapshot(world, rateMultipliers, paused, growthMode, precipitation, evaporationAndDesertification);
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt world snapshot `" + path + "`", e);
+        }
+    }
+
+    private static Sim[] sims(Engine engine) {
+        return new Sim[] {engine.TERRAIN_SIM, engine.GROWTH_SIM, engine.POP_SIM};
+    }
+
+    // Reads a list of tile ids, marking them in listed so that no id can appear twice in this list or the other
+    private static int[] readIds(ByteBuffer buffer, int count, boolean[] listed) throws IOException {
+        int[] ids = new int[count];
+        buffer.asIntBuffer().get(ids);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        for (int id : ids) {
+            if (id < 0 || id >= listed.length) {
+                throw new IOException("Corrupt world snapshot: tile id " + id + " out of " + listed.length);
+            }
+            if (listed[id]) {
+                throw new IOException("Corrupt world snapshot: tile id " + id + " is listed more than once");
+            }
+            listed[id] = true;
+        }
+        return ids;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static byte toByte(boolean value) {
+        return (byte) (value ? 1 : 0);
+    }
+}
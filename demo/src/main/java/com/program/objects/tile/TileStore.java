@@ -0,0 +1,200 @@
+package com.program.objects.tile;
+
+import com.program.util.HexCoord;
+
+import java.util.Arrays;
+
+/**
+ * Holds the state of every tile of a world in parallel primitive arrays indexed by tile id, so that the simulations can
+ * walk the world without chasing one object per tile. Ids are handed out in order of creation and never reused.
+ * <p>
+ * The Tile objects handed out by this store are lightweight handles onto these arrays.
+ */
+public class TileStore {
+
+    public static final int MAX_STAGE = 3;
+
+    // Tiles produce resources relative to their growth stage
+    public static final double POPULATION_PER_STAGE = 1.0;
+    public static final double YIELD_PER_STAGE = 2.0;
+
+    // Bits of the flags array
+    public static final int MATURED = 1;
+    public static final int ABANDONED = 1 << 1;
+    public static final int OCCUPIED = 1 << 2;
+    private static final int FIRST_TYPE_SHIFT = 4; // The first type of the tile is kept in the upper bits of its flags
+
+    // The rotation of a tile is stored as an index into this array, in degrees around the Z-axis
+    public static final int[] ROTATIONS = {30, 90, 150, 210, 270, 330};
+
+    private byte[] types;
+    private byte[] stages;
+    private byte[] flags;
+    private byte[] rotations;
+    private long[] coords; // Packed axial coordinates
+    private Tile[] handles;
+    private int size = 0;
+
+    public TileStore() {
+        this(64);
+    }
+
+    public TileStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        types = new byte[capacity];
+        stages = new byte[capacity];
+        flags = new byte[capacity];
+        rotations = new byte[capacity];
+        coords = new long[capacity];
+        handles = new Tile[capacity];
+    }
+
+    /**
+     * @return The number of tiles in the store, which is also the next id to be handed out.
+     */
+    public int size() { return size; }
+
+    /**
+     * Creates a new, unoccupied tile at the first stage.
+     * @param q The axial column of the tile.
+     * @param r The axial row of the tile.
+     * @param type The type of the tile, which is also recorded as its first type.
+     * @param rotation The index of the tile's rotation in ROTATIONS.
+     * @return The handle of the new tile.
+     */
+    public Tile add(int q, int r, TileType type, int rotation) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            stages = Arrays.copyOf(stages, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+            rotations = Arrays.copyOf(rotations, capacity);
+            coords = Arrays.copyOf(coords, capacity);
+            handles = Arrays.copyOf(handles, capacity);
+        }
+        int id = size++;
+        types[id] = (byte) type.ordinal();
+        stages[id] = 1;
+        flags[id] = (byte) (type.ordinal() << FIRST_TYPE_SHIFT);
+        rotations[id] = (byte) rotation;
+        coords[id] = HexCoord.pack(q, r);
+        handles[id] = new Tile(this, id);
+        return handles[id];
+    }
+
+    /**
+     * Overwrites this store with a copy of the columns of another, e.g. to keep the previous generation of a world.
+     * Handles are not copied, so a copy is only meant to be read through its columns and accessors.
+     * @param other The store to copy from.
+     */
+    public void copyFrom(TileStore other) {
+        if (types.length < other.size) {
+            int capacity = other.types.length;
+            types = new byte[capacity];
+            stages = new byte[capacity];
+            flags = new byte[capacity];
+            rotations = new byte[capacity];
+            coords = new long[capacity];
+            handles = new Tile[capacity];
+        }
+        System.arraycopy(other.types, 0, types, 0, other.size);
+        System.arraycopy(other.stages, 0, stages, 0, other.size);
+        System.arraycopy(other.flags, 0, flags, 0, other.size);
+        System.arraycopy(other.rotations, 0, rotations, 0, other.size);
+        System.arraycopy(other.coords, 0, coords, 0, other.size);
+        size = other.size;
+    }
+
+    /**
+     * @param id The id of a tile.
+     * @return The handle of the tile, which is the same object on every call.
+     */
+    public Tile tile(int id) { return handles[id]; }
+
+    public long key(int id) { return coords[id]; }
+
+    public int q(int id) { return HexCoord.q(coords[id]); }
+
+    public int r(int id) { return HexCoord.r(coords[id]); }
+
+    public TileType type(int id) { return TileType.VALUES[types[id]]; }
+
+    public void setType(int id, TileType type) { types[id] = (byte) type.ordinal(); }
+
+    /**
+     * @return The type the tile had when it was created, which an abandoned village reverts to.
+     */
+    public TileType firstType(int id) { return TileType.VALUES[(flags[id] & 0xFF) >> FIRST_TYPE_SHIFT]; }
+
+    public int stage(int id) { return stages[id]; }
+
+    /**
+     * Forces the tile to be set to a certain stage, which is ignored if it is out of range.
+     */
+    public void setStage(int id, int stage) {
+        if (stage >= 1 && stage <= MAX_STAGE) {
+            stages[id] = (byte) stage;
+            setFlag(id, MATURED, stage == MAX_STAGE);
+        }
+    }
+
+    public boolean isMatured(int id) { return (flags[id] & MATURED) != 0; }
+
+    public boolean isAbandoned(int id) { return (flags[id] & ABANDONED) != 0; }
+
+    public void markAbandoned(int id) { setFlag(id, ABANDONED, true); }
+
+    public boolean isOccupied(int id) { return (flags[id] & OCCUPIED) != 0; }
+
+    public void markOccupied(int id) { setFlag(id, OCCUPIED, true); }
+
+    /**
+     * @return The index of the tile's rotation in ROTATIONS.
+     */
+    public int rotation(int id) { return rotations[id]; }
+
+    public void setRotation(int id, int rotation) { rotations[id] = (byte) rotation; }
+
+    /**
+     * Packs the type, stage, flags and rotation of a tile into one int, e.g. to report how a tile changed without
+     * allocating. The packed value is never negative.
+     */
+    public int state(int id) {
+        return (types[id] & 0xFF) | (stages[id] & 0xFF) << 8 | (flags[id] & 0xFF) << 16 | (rotations[id] & 0xFF) << 24;
+    }
+
+    public static TileType stateType(int state) { return TileType.VALUES[state & 0xFF]; }
+
+    public static int stateStage(int state) { return state >>> 8 & 0xFF; }
+
+    public static int stateFlags(int state) { return state >>> 16 & 0xFF; }
+
+    /**
+     * @return The index of the rotation in ROTATIONS.
+     */
+    public static int stateRotation(int state) { return state >>> 24; }
+
+    public double population(int id) { return POPULATION_PER_STAGE * stages[id]; }
+
+    public double yield(int id) { return YIELD_PER_STAGE * stages[id]; }
+
+    /**
+     * The raw type column, holding TileType ordinals, for loops that read every tile.
+     * The array is replaced when the store grows, so it should not be kept past adding tiles.
+     */
+    public byte[] types() { return types; }
+
+    /**
+     * The raw stage column. The array is replaced when the store grows, so it should not be kept past adding tiles.
+     */
+    public byte[] stages() { return stages; }
+
+    /**
+     * The raw flags column. The array is replaced when the store grows, so it should not be kept past adding tiles.
+     */
+    public byte[] flags() { return flags; }
+
+    private void setFlag(int id, int flag, boolean value) {
+        flags[id] = (byte) (value ? flags[id] | flag : flags[id] & ~flag);
+    }
+}
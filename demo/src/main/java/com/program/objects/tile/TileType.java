@@ -0,0 +1,35 @@
+package com.program.objects.tile;
+
+/**
+ * The kinds of tile. The ordinals of the first four match the order of World.POPULATIONS and World.YIELDS.
+ */
+public enum TileType {
+    GRASS, FOREST, RIVER, VILLAGE, SAND, RUBBLE;
+
+    // Cached because values() allocates a new array on every call
+    public static final TileType[] VALUES = values();
+
+    private final String assetName = name().toLowerCase();
+
+    /**
+     * @return True if tiles of this type count towards the populations.
+     */
+    public boolean hasPopulation() {
+        return this != SAND && this != RUBBLE;
+    }
+
+    /**
+     * @return True if tiles of this type count towards the yields.
+     */
+    public boolean hasYield() {
+        return this != VILLAGE && this != SAND && this != RUBBLE;
+    }
+
+    /**
+     * @return The lowercase name of the type, which is also the prefix of its asset files.
+     */
+    @Override
+    public String toString() {
+        return assetName;
+    }
+}
@@ -0,0 +1,163 @@
+package com.program.render;
+
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import com.program.util.HexCoord;
+import com.program.util.IntArrayList;
+import javafx.geometry.Point3D;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.shape.VertexFormat;
+
+/**
+ * The tiles of one chunk of the grid merged into a single mesh, with the position and rotation of every tile baked into its
+ * vertices and its colour picked from the TextureAtlas. A chunk is one node in the scene instead of one node per tile, at the
+ * cost of rebuilding the whole chunk whenever one of its tiles changes.
+ * <p>
+ * Merging copies the geometry of every tile, so the grown assets, which have up to 12000 faces, are merged as a version
+ * simplified down to MAX_MERGED_FACES by MeshSimplifier. That bounds a chunk to SIZE * SIZE * MAX_MERGED_FACES faces, even
+ * when the orthographic camera shows every chunk at full detail.
+ * <p>
+ * Away from the camera the assets give way to coarser stand-ins, see DetailLevel.
+ */
+public class ChunkMesh {
+
+    public static final int SIZE = 8; // The number of axial columns and rows covered by a chunk
+    public static final int MAX_MERGED_FACES = 512; // Every first stage has 72 faces, while a grown field has over 12000
+
+    public final MeshView view; // The only node of the chunk
+    public final Point3D center; // The center of the area covered by the chunk
+
+    private final TriangleMesh mesh = new TriangleMesh(VertexFormat.POINT_NORMAL_TEXCOORD);
+    private final IntArrayList qs = new IntArrayList(); // The axial column of each tile
+    private final IntArrayList rs = new IntArrayList(); // The axial row of each tile, in the order of qs
+    private final IntArrayList states = new IntArrayList(); // The packed state shown of each tile, in the order of qs
+    private DetailLevel level = DetailLevel.FULL;
+    private boolean dirty = false;
+
+    /**
+     * @param key The key of the chunk, see chunkKey.
+     */
+    public ChunkMesh(long key) {
+        center = HexLayout.position(HexCoord.q(key) * SIZE + SIZE / 2, HexCoord.r(key) * SIZE + SIZE / 2);
+        mesh.getTexCoords().setAll(TextureAtlas.texCoords()); // The texCoord index of a type is its ordinal
+        view = new MeshView(mesh);
+        view.setMaterial(TextureAtlas.getMaterial()); // Shared by every chunk
+    }
+
+    /**
+     * @param q The axial column of a tile.
+     * @param r The axial row of a tile.
+     * @return The key of the chunk holding the tile.
+     */
+    public static long chunkKey(int q, int r) {
+        return HexCoord.pack(Math.floorDiv(q, SIZE), Math.floorDiv(r, SIZE));
+    }
+
+    /**
+     * Sets the state to show of a tile of this chunk, adding the tile if it is new. Call rebuild afterwards to apply it.
+     * @param q The axial column of the tile, which must lie in this chunk.
+     * @param r The axial row of the tile.
+     * @param state The packed state to show.
+     */
+    public void set(int q, int r, int state) {
+        int index = indexOf(q, r);
+        if (index < 0) {
+            qs.add(q);
+            rs.add(r);
+            states.add(state);
+        }
+        else {
+            states.set(index, state);
+        }
+        dirty = true;
+    }
+
+    public DetailLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the level of detail to draw the chunk with. Call rebuild afterwards to apply it.
+     */
+    public void setLevel(DetailLevel level) {
+        if (level != this.level) {
+            this.level = level;
+            dirty = true;
+        }
+    }
+
+    /**
+     * @return True if a tile or the level of detail was set since the last rebuild.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Merges the meshes of the tiles of the chunk into the mesh of the chunk, at its level of detail.
+     * @param builder The builder to merge the meshes with, which is cleared first.
+     */
+    public void rebuild(MeshBuilder builder) {
+        builder.clear();
+        if (level == DetailLevel.SUPER) {
+            buildBlock(builder);
+        }
+        else {
+            buildTiles(builder);
+        }
+        builder.applyTo(mesh);
+        dirty = false;
+    }
+
+    /**
+     * @return The number of tiles in the chunk.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    // A chunk holds at most SIZE * SIZE tiles, so a linear search is fine
+    private int indexOf(int q, int r) {
+        for (int i = 0; i < qs.size(); i++) {
+            if (qs.get(i) == q && rs.get(i) == r) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void buildTiles(MeshBuilder builder) {
+        for (int i = 0; i < states.size(); i++) {
+            int state = states.get(i);
+            TileAppearance appearance = TileAppearance.of(state);
+            Point3D position = HexLayout.position(qs.get(i), rs.get(i));
+            if (level == DetailLevel.PRISM) {
+                builder.add(HexPrism.tile(), 0, 0, position, appearance.type.ordinal()); // The prism is the same at every rotation
+                continue;
+            }
+
+            // Bake in the same transforms as TileView, a rotation around the Z-axis followed by a translation
+            builder.add(appearance.simplifiedData(MAX_MERGED_FACES), TileStore.ROTATIONS[TileStore.stateRotation(state)],
+                    appearance.pivotX, position, appearance.type.ordinal());
+        }
+    }
+
+    // Covers the tiles of the chunk with a single block in the colour of the most common type among them
+    private void buildBlock(MeshBuilder builder) {
+        int[] counts = new int[TileType.VALUES.length];
+        int minQ = Integer.MAX_VALUE, minR = Integer.MAX_VALUE, maxQ = Integer.MIN_VALUE, maxR = Integer.MIN_VALUE;
+        for (int i = 0; i < states.size(); i++) {
+            counts[TileStore.stateType(states.get(i)).ordinal()]++;
+            minQ = Math.min(minQ, qs.get(i)); maxQ = Math.max(maxQ, qs.get(i));
+            minR = Math.min(minR, rs.get(i)); maxR = Math.max(maxR, rs.get(i));
+        }
+        int dominant = 0;
+        for (int type = 1; type < counts.length; type++) {
+            if (counts[type] > counts[dominant]) {
+                dominant = type;
+            }
+        }
+        builder.add(HexPrism.block(minQ, minR, maxQ, maxR), 0, 0, Point3D.ZERO, dominant);
+    }
+}
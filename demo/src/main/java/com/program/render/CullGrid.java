@@ -0,0 +1,97 @@
+package com.program.render;
+
+import com.program.util.ArrayList;
+import com.program.util.LongObjectMap;
+import javafx.scene.Node;
+
+/**
+ * Buckets the nodes of the scene by the chunk of the tiles they show, so that the nodes in view can be found from a range of
+ * coordinates without looking at the bounds of every node. Nodes outside the range are hidden, which keeps them in the scene
+ * graph but skips them when rendering and picking.
+ */
+public class CullGrid {
+
+    private static class Cell {
+        final int q, r; // The first axial column and row of the chunk
+        final ArrayList<Node> nodes = new ArrayList<>();
+        boolean visible;
+
+        Cell(int q, int r) {
+            this.q = q;
+            this.r = r;
+        }
+    }
+
+    private final LongObjectMap<Cell> cells = new LongObjectMap<>(); // Keyed by ChunkMesh.chunkKey
+    private final ArrayList<Cell> cellList = new ArrayList<>(); // The values of cells, in order of creation
+    private HexRange range = null; // Null while everything is in view
+
+    /**
+     * Adds a node showing the tile at the given coordinates, hiding it if the tile is out of view.
+     */
+    public void add(int q, int r, Node node) {
+        long key = ChunkMesh.chunkKey(q, r);
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell(Math.floorDiv(q, ChunkMesh.SIZE) * ChunkMesh.SIZE, Math.floorDiv(r, ChunkMesh.SIZE) * ChunkMesh.SIZE);
+            cell.visible = isInView(cell);
+            cells.put(key, cell);
+            cellList.add(cell);
+        }
+        cell.nodes.add(node);
+        node.setVisible(cell.visible);
+    }
+
+    /**
+     * Removes a node that was added with the same coordinates.
+     */
+    public void remove(int q, int r, Node node) {
+        Cell cell = cells.get(ChunkMesh.chunkKey(q, r));
+        if (cell != null) {
+            cell.nodes.removeFirst(node); // A cell holds at most one node per tile of the chunk
+        }
+    }
+
+    /**
+     * Shows the nodes of the tiles in a range and hides the rest. Only the cells whose visibility changed are touched, and
+     * nothing is done if the range did not change.
+     * @param range The range of the tiles in view, or null to show everything.
+     */
+    public void setRange(HexRange range) {
+        if (range == null ? this.range == null : range.equals(this.range)) {
+            return;
+        }
+        this.range = range;
+        for (Cell cell : cellList) {
+            boolean visible = isInView(cell);
+            if (visible != cell.visible) {
+                cell.visible = visible;
+                for (Node node : cell.nodes) {
+                    node.setVisible(visible);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The number of nodes that are not hidden.
+     */
+    public int visibleCount() {
+        int count = 0;
+        for (Cell cell : cellList) {
+            if (cell.visible) {
+                count += cell.nodes.size();
+            }
+        }
+        return count;
+    }
+
+    public void clear() {
+        cells.clear();
+        cellList.clear();
+    }
+
+    private boolean isInView(Cell cell) {
+        return range == null || range.intersects(cell.q, cell.r, ChunkMesh.SIZE);
+    }
+}
@@ -0,0 +1,39 @@
+package com.program.render;
+
+/**
+ * How much detail a chunk is drawn with, from the finest to the coarsest, chosen from its apparent distance to the camera.
+ */
+public enum DetailLevel {
+    FULL, // The asset of every tile
+    PRISM, // A flat hex prism per tile in the colour of its type
+    SUPER; // One block per chunk in the colour of its most common type
+
+    // The apparent distances beyond which a chunk switches from FULL to PRISM and from PRISM to SUPER
+    public static final double PRISM_DISTANCE = 1500;
+    public static final double SUPER_DISTANCE = 3500;
+    // A chunk only switches once it is this fraction past a distance, so that it does not flicker while hovering around it
+    public static final double HYSTERESIS = 0.1;
+
+    private static final DetailLevel[] LEVELS = values();
+
+    /**
+     * @param current The level the chunk is currently drawn with.
+     * @param distance The apparent distance of the chunk to the camera, which grows as the camera zooms out.
+     * @return The level the chunk should be drawn with.
+     */
+    public static DetailLevel choose(DetailLevel current, double distance) {
+        DetailLevel level = current;
+        while (level != SUPER && distance > level.coarserDistance() * (1 + HYSTERESIS)) {
+            level = LEVELS[level.ordinal() + 1];
+        }
+        while (level != FULL && distance < LEVELS[level.ordinal() - 1].coarserDistance() * (1 - HYSTERESIS)) {
+            level = LEVELS[level.ordinal() - 1];
+        }
+        return level;
+    }
+
+    // The distance beyond which this level gives way to the next coarser one
+    private double coarserDistance() {
+        return this == FULL ? PRISM_DISTANCE : SUPER_DISTANCE;
+    }
+}
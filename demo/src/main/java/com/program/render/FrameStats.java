@@ -0,0 +1,48 @@
+package com.program.render;
+
+/**
+ * Measures the time between frames and the time the renderer spends updating the scene in each of them, so that the
+ * renderer modes can be compared on a live scene.
+ */
+public class FrameStats {
+
+    public static final int REPORT_INTERVAL = 600; // In frames, i.e. every 10 seconds at 60 FPS
+
+    private long lastFrame = 0;
+    private int frames = 0;
+    private long totalFrameNanos = 0;
+    private long worstFrameNanos = 0;
+    private long totalUpdateNanos = 0;
+
+    /**
+     * Records a frame.
+     * @param now The timestamp of the frame in nanoseconds, as handed to an AnimationTimer.
+     * @param updateNanos The time spent updating the scene during the frame.
+     * @return True if REPORT_INTERVAL frames were recorded since the previous report, so it is time for another.
+     */
+    public boolean frame(long now, long updateNanos) {
+        if (lastFrame != 0) {
+            long frameNanos = now - lastFrame;
+            frames++;
+            totalFrameNanos += frameNanos;
+            worstFrameNanos = Math.max(worstFrameNanos, frameNanos);
+            totalUpdateNanos += updateNanos;
+        }
+        lastFrame = now;
+        return frames >= REPORT_INTERVAL;
+    }
+
+    /**
+     * Summarizes the frames recorded since the previous report and starts over.
+     * @return The average and worst frame times and the average update time, in milliseconds.
+     */
+    public String report() {
+        String report = String.format("Frame time: avg %.2f ms, worst %.2f ms, scene update %.2f ms",
+                totalFrameNanos / 1e6 / frames, worstFrameNanos / 1e6, totalUpdateNanos / 1e6 / frames);
+        frames = 0;
+        totalFrameNanos = 0;
+        worstFrameNanos = 0;
+        totalUpdateNanos = 0;
+        return report;
+    }
+}
@@ -0,0 +1,50 @@
+package com.program.render;
+
+import com.program.App;
+import com.program.util.HexCoord;
+import javafx.geometry.Point3D;
+
+/**
+ * Maps the axial coordinates of the simulation onto positions in the 3D scene.
+ */
+public class HexLayout {
+
+    public final static double RADIUS = 50; // Distance from the center to a vertex
+    public final static double APOTHEM = Math.sqrt(3)/2 * RADIUS; // Distance from the center to the midpoint of an edge
+    // All six possible vectors that can be added from an existing tile's center to reach an adjacent tile, in the order of Tile.AXIAL_ADJACENCIES
+    public final static Point3D[] ADJACENCIES = {new Point3D(APOTHEM, -1.5*RADIUS, 0), new Point3D(2*APOTHEM, 0, 0),
+    new Point3D(APOTHEM, 1.5*RADIUS, 0), new Point3D(-APOTHEM, 1.5*RADIUS, 0),
+    new Point3D(-2*APOTHEM, 0, 0), new Point3D(-APOTHEM, -1.5*RADIUS, 0)};
+    // Center of the starting tile
+    public final static Point3D ORIGIN = new Point3D(App.WINDOW_WIDTH / 2, App.WINDOW_HEIGHT / 2, 0);
+
+    /**
+     * @param q The axial column of a tile.
+     * @param r The axial row of a tile.
+     * @return The center of the tile in the scene.
+     */
+    public static Point3D position(int q, int r) {
+        // Stepping one column moves by ADJACENCIES[1] and stepping one row moves by ADJACENCIES[2]
+        return ORIGIN.add(ADJACENCIES[1].multiply(q)).add(ADJACENCIES[2].multiply(r));
+    }
+
+    /**
+     * @param point A point in the scene, of which only X and Y are used.
+     * @return The packed axial coordinate of the tile whose hexagon holds the point, see HexCoord.
+     */
+    public static long keyAt(Point3D point) {
+        // Invert position, then round to the nearest hexagon in cube coordinates, fixing up the axis that rounded the most
+        double r = (point.getY() - ORIGIN.getY()) / ADJACENCIES[2].getY();
+        double q = (point.getX() - ORIGIN.getX() - r * ADJACENCIES[2].getX()) / ADJACENCIES[1].getX();
+        double s = -q - r;
+        long roundQ = Math.round(q), roundR = Math.round(r), roundS = Math.round(s);
+        double errorQ = Math.abs(roundQ - q), errorR = Math.abs(roundR - r), errorS = Math.abs(roundS - s);
+        if (errorQ > errorR && errorQ > errorS) {
+            roundQ = -roundR - roundS;
+        }
+        else if (errorR > errorS) {
+            roundR = -roundQ - roundS;
+        }
+        return HexCoord.pack((int) roundQ, (int) roundR);
+    }
+}
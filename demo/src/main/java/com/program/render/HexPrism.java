@@ -0,0 +1,90 @@
+package com.program.render;
+
+import javafx.geometry.Point3D;
+
+/**
+ * Builds the flat prisms that stand in for tiles when they are too far away for their assets to be worth drawing.
+ * The prisms have the same thickness as the base of the assets, with the top facing the camera at -Z.
+ */
+public class HexPrism {
+
+    public static final double TOP_Z = -25; // The top and bottom of the base of every asset
+    public static final double BOTTOM_Z = 25;
+    private static final double INSET = 0.99; // Leaves the same gap between neighbouring tiles as the assets
+
+    private static MeshData tile = null;
+
+    /**
+     * @return The prism of a single tile, centered on the origin and lined up with the grid, so that it needs no rotation.
+     */
+    public static MeshData tile() {
+        if (tile == null) {
+            Point3D[] corners = new Point3D[6];
+            for (int i = 0; i < 6; i++) {
+                double angle = Math.toRadians(30 + 60 * i); // The corners of a pointy-top hexagon, as laid out by HexLayout
+                corners[i] = new Point3D(Math.cos(angle), Math.sin(angle), 0).multiply(HexLayout.RADIUS * INSET);
+            }
+            tile = prism(corners);
+        }
+        return tile;
+    }
+
+    /**
+     * Builds a prism over the parallelogram spanned by a range of axial coordinates, covering the tiles in that range.
+     * @param minQ The first axial column.
+     * @param minR The first axial row.
+     * @param maxQ The last axial column.
+     * @param maxR The last axial row.
+     * @return The prism, in the coordinates of the scene.
+     */
+    public static MeshData block(int minQ, int minR, int maxQ, int maxR) {
+        Point3D origin = HexLayout.position(minQ, minR);
+        // Stepping one column moves by ADJACENCIES[1] and stepping one row moves by ADJACENCIES[2]
+        Point3D columns = HexLayout.ADJACENCIES[1].multiply(maxQ - minQ + 1);
+        Point3D rows = HexLayout.ADJACENCIES[2].multiply(maxR - minR + 1);
+        Point3D first = origin.subtract(HexLayout.ADJACENCIES[1].add(HexLayout.ADJACENCIES[2]).multiply(0.5));
+        return prism(new Point3D[] {first, first.add(columns), first.add(columns).add(rows), first.add(rows)});
+    }
+
+    /**
+     * @param corners The corners of a convex polygon in the XY-plane, in order of increasing angle around its center.
+     */
+    private static MeshData prism(Point3D[] corners) {
+        int n = corners.length;
+        float[] points = new float[n * 2 * 3]; // The top corners, then the bottom corners
+        for (int i = 0; i < n; i++) {
+            setPoint(points, i, corners[i], TOP_Z);
+            setPoint(points, n + i, corners[i], BOTTOM_Z);
+        }
+        float[] normals = new float[(n + 1) * 3]; // One per side, then the top
+        int[] faces = new int[(n - 2 + n * 2) * 9];
+        int f = 0;
+        normals[n * 3 + 2] = -1;
+        for (int i = 1; i < n - 1; i++) { // The top is a fan around the first corner
+            f = setFace(faces, f, 0, i + 1, i, n);
+        }
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            Point3D normal = corners[next].subtract(corners[i]).crossProduct(0, 0, 1).normalize();
+            normals[i * 3] = (float) normal.getX();
+            normals[i * 3 + 1] = (float) normal.getY();
+            f = setFace(faces, f, i, next, n + i, i);
+            f = setFace(faces, f, next, n + next, n + i, i);
+        }
+        return new MeshData(points, new float[] {0.5f, 0.5f}, normals, faces);
+    }
+
+    private static void setPoint(float[] points, int index, Point3D corner, double z) {
+        points[index * 3] = (float) corner.getX();
+        points[index * 3 + 1] = (float) corner.getY();
+        points[index * 3 + 2] = (float) z;
+    }
+
+    // Faces are wound like the assets, with (b - a) x (c - a) pointing out of the prism
+    private static int setFace(int[] faces, int f, int a, int b, int c, int normal) {
+        faces[f] = a; faces[f + 1] = normal; faces[f + 2] = 0;
+        faces[f + 3] = b; faces[f + 4] = normal; faces[f + 5] = 0;
+        faces[f + 6] = c; faces[f + 7] = normal; faces[f + 8] = 0;
+        return f + 9;
+    }
+}
@@ -0,0 +1,54 @@
+package com.program.render;
+
+/**
+ * A hexagonal range of axial coordinates, bounded on each of the three cube axes q, r and s = -q - r.
+ * Bounds are inclusive.
+ */
+public class HexRange {
+
+    public final int minQ, maxQ;
+    public final int minR, maxR;
+    public final int minS, maxS;
+
+    public HexRange(int minQ, int maxQ, int minR, int maxR, int minS, int maxS) {
+        this.minQ = minQ; this.maxQ = maxQ;
+        this.minR = minR; this.maxR = maxR;
+        this.minS = minS; this.maxS = maxS;
+    }
+
+    public boolean contains(int q, int r) {
+        return q >= minQ && q <= maxQ && r >= minR && r <= maxR && -q - r >= minS && -q - r <= maxS;
+    }
+
+    /**
+     * @param q The first axial column of the block.
+     * @param r The first axial row of the block.
+     * @param size The number of columns and rows of the block.
+     * @return True if any tile of the block of coordinates may lie in the range. This can be a false positive near the
+     * corners of the block, since only the bounds of the block on each axis are compared.
+     */
+    public boolean intersects(int q, int r, int size) {
+        int lastQ = q + size - 1, lastR = r + size - 1;
+        return lastQ >= minQ && q <= maxQ && lastR >= minR && r <= maxR && -q - r >= minS && -lastQ - lastR <= maxS;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof HexRange)) {
+            return false;
+        }
+        HexRange range = (HexRange) other;
+        return minQ == range.minQ && maxQ == range.maxQ && minR == range.minR && maxR == range.maxR
+                && minS == range.minS && maxS == range.maxS;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((((minQ * 31 + maxQ) * 31 + minR) * 31 + maxR) * 31 + minS) * 31 + maxS;
+    }
+
+    @Override
+    public String toString() {
+        return "HexRange q [" + minQ + ", " + maxQ + "], r [" + minR + ", " + maxR + "], s [" + minS + ", " + maxS + "]";
+    }
+}
@@ -0,0 +1,87 @@
+package com.program.render;
+
+import javafx.geometry.Point3D;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.Arrays;
+
+/**
+ * Merges several meshes into the arrays of one mesh, placing each with its own rotation and translation.
+ * The arrays are kept between builds, so rebuilding a mesh of a similar size allocates nothing but the copies made by
+ * TriangleMesh itself.
+ */
+public class MeshBuilder {
+
+    private float[] points = new float[1024];
+    private float[] normals = new float[1024];
+    private int[] faces = new int[1024];
+    private int pointCount, normalCount, faceCount; // In array elements
+
+    public void clear() {
+        pointCount = 0;
+        normalCount = 0;
+        faceCount = 0;
+    }
+
+    /**
+     * @return The number of faces added since the last clear.
+     */
+    public int faceCount() {
+        return faceCount / 9; // Three vertices of three indices each
+    }
+
+    /**
+     * Adds a mesh rotated around the Z-axis and then translated, like a node with a Rotate transform and a translation.
+     * @param data The mesh to add, whose texture coordinates are ignored.
+     * @param angle The angle of the rotation in degrees.
+     * @param pivotX The X coordinate the mesh is rotated around.
+     * @param position The translation.
+     * @param texCoord The index of the texture coordinate given to every vertex of the mesh.
+     */
+    public void add(MeshData data, double angle, double pivotX, Point3D position, int texCoord) {
+        ensureCapacity(data.points.length, data.normals.length, data.faces.length);
+        double cos = Math.cos(Math.toRadians(angle)), sin = Math.sin(Math.toRadians(angle));
+        for (int j = 0; j < data.points.length; j += 3) {
+            double x = data.points[j] - pivotX, y = data.points[j + 1];
+            points[pointCount + j] = (float) (x * cos - y * sin + pivotX + position.getX());
+            points[pointCount + j + 1] = (float) (x * sin + y * cos + position.getY());
+            points[pointCount + j + 2] = (float) (data.points[j + 2] + position.getZ());
+        }
+        for (int j = 0; j < data.normals.length; j += 3) {
+            double x = data.normals[j], y = data.normals[j + 1];
+            normals[normalCount + j] = (float) (x * cos - y * sin);
+            normals[normalCount + j + 1] = (float) (x * sin + y * cos);
+            normals[normalCount + j + 2] = data.normals[j + 2];
+        }
+        for (int j = 0; j < data.faces.length; j += 3) {
+            faces[faceCount + j] = data.faces[j] + pointCount / 3;
+            faces[faceCount + j + 1] = data.faces[j + 1] + normalCount / 3;
+            faces[faceCount + j + 2] = texCoord;
+        }
+        pointCount += data.points.length;
+        normalCount += data.normals.length;
+        faceCount += data.faces.length;
+    }
+
+    /**
+     * Replaces the points, normals and faces of a mesh with the ones built, in one bulk copy each.
+     * The texture coordinates of the mesh are left alone.
+     */
+    public void applyTo(TriangleMesh mesh) {
+        mesh.getPoints().setAll(points, 0, pointCount);
+        mesh.getNormals().setAll(normals, 0, normalCount);
+        mesh.getFaces().setAll(faces, 0, faceCount);
+    }
+
+    private void ensureCapacity(int morePoints, int moreNormals, int moreFaces) {
+        if (pointCount + morePoints > points.length) {
+            points = Arrays.copyOf(points, Math.max(pointCount + morePoints, points.length * 2));
+        }
+        if (normalCount + moreNormals > normals.length) {
+            normals = Arrays.copyOf(normals, Math.max(normalCount + moreNormals, normals.length * 2));
+        }
+        if (faceCount + moreFaces > faces.length) {
+            faces = Arrays.copyOf(faces, Math.max(faceCount + moreFaces, faces.length * 2));
+        }
+    }
+}
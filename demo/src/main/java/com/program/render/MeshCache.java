@@ -0,0 +1,155 @@
+package com.program.render;
+
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads each tile asset once, from the precompiled MeshPack if there is one or else from its .obj file,
+ * and shares the resulting TriangleMesh between every MeshView of the same type and stage.
+ * The shared meshes and their MeshData must be treated as immutable, since a change to one would show up on every tile using it.
+ */
+public class MeshCache {
+
+    public static final String OBJECTS_PATH = "demo/src/main/java/com/program/assets/objects/";
+
+    private static final Map<String, TriangleMesh> MESHES = new HashMap<>();
+    private static final Map<String, MeshData> MESH_DATA = new HashMap<>(); // The raw arrays behind MESHES
+    private static final Map<String, MeshData> SIMPLIFIED_DATA = new HashMap<>(); // Keyed by asset and face budget
+    private static MeshPack pack = null;
+    private static boolean packOpened = false;
+    // Striped, since they are read over JMX while the JavaFX thread bumps them, see RenderStats
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder loads = new LongAdder();
+
+    /**
+     * @param type The tile type of the asset.
+     * @param stage The growth stage of the asset.
+     * @return A new MeshView backed by the shared mesh of the asset.
+     */
+    public static MeshView getMeshView(String type, int stage) {
+        return new MeshView(getMesh(type, stage));
+    }
+
+    /**
+     * Returns the shared mesh of an asset, loading it only if it is not cached yet.
+     * @param type The tile type of the asset.
+     * @param stage The growth stage of the asset.
+     * @return The shared mesh of the asset.
+     */
+    public static TriangleMesh getMesh(String type, int stage) {
+        String key = type + stage; // Matches the file name of the asset
+        TriangleMesh mesh = MESHES.get(key);
+        if (mesh != null) {
+            hits.increment();
+            return mesh;
+        }
+        misses.increment();
+        mesh = getMeshData(type, stage).toTriangleMesh();
+        MESHES.put(key, mesh);
+        return mesh;
+    }
+
+    /**
+     * Returns the raw arrays of an asset, e.g. to merge several assets into one mesh, loading them only if they are not cached yet.
+     * @param type The tile type of the asset.
+     * @param stage The growth stage of the asset.
+     * @return The shared arrays of the asset.
+     */
+    public static MeshData getMeshData(String type, int stage) {
+        String key = type + stage;
+        MeshData data = MESH_DATA.get(key);
+        if (data != null) {
+            return data;
+        }
+        MeshPack pack = getPack();
+        File source = new File(OBJECTS_PATH + key + ".obj");
+        if (pack != null && pack.isUpToDate(key, source)) {
+            data = pack.get(key);
+        }
+        else { // Fall back to parsing the .obj file if the asset was not precompiled, or was edited since
+            data = ObjLoader.readObj(source.getPath());
+        }
+        loads.increment();
+        MESH_DATA.put(key, data);
+        return data;
+    }
+
+    /**
+     * Returns the raw arrays of an asset simplified by MeshSimplifier, simplifying them only if they are not cached yet.
+     * @param type The tile type of the asset.
+     * @param stage The growth stage of the asset.
+     * @param maxFaces The most faces the arrays may have.
+     * @return The shared arrays of the asset itself if it has no more than maxFaces faces, or else of its simplified version.
+     */
+    public static MeshData getSimplifiedData(String type, int stage, int maxFaces) {
+        String key = type + stage + "/" + maxFaces;
+        MeshData data = SIMPLIFIED_DATA.get(key);
+        if (data == null) {
+            data = MeshSimplifier.simplify(getMeshData(type, stage), maxFaces);
+            SIMPLIFIED_DATA.put(key, data);
+        }
+        return data;
+    }
+
+    /**
+     * Drops a single asset from the cache so that it is loaded again the next time it is requested.
+     * MeshViews that were already handed out keep the old mesh until they are rerendered.
+     * @param type The tile type of the asset.
+     * @param stage The growth stage of the asset.
+     */
+    public static void invalidate(String type, int stage) {
+        MESHES.remove(type + stage);
+        MESH_DATA.remove(type + stage);
+        SIMPLIFIED_DATA.keySet().removeIf(key -> key.startsWith(type + stage + "/"));
+    }
+
+    /**
+     * Drops every asset from the cache, e.g. after the assets have been reloaded from disk.
+     */
+    public static void invalidateAll() {
+        MESHES.clear();
+        MESH_DATA.clear();
+        SIMPLIFIED_DATA.clear();
+        pack = null;
+        packOpened = false; // Map the pack again in case it was rebuilt
+    }
+
+    /**
+     * Opens the precompiled mesh pack the first time it is needed.
+     * @return The mesh pack, or null if it has not been built.
+     */
+    private static MeshPack getPack() {
+        if (!packOpened) {
+            pack = MeshPack.open(MeshPack.PACK_PATH);
+            packOpened = true;
+        }
+        return pack;
+    }
+
+    /**
+     * @return The number of requests that were served from the cache.
+     */
+    public static long getHits() { return hits.sum(); }
+
+    /**
+     * @return The number of requests that had to load the asset.
+     */
+    public static long getMisses() { return misses.sum(); }
+
+    /**
+     * @return The number of assets that were read from the pack or their .obj file, including those read again after being
+     * invalidated.
+     */
+    public static long getLoads() { return loads.sum(); }
+
+    /**
+     * @return The number of assets currently held by the cache.
+     */
+    public static int size() { return MESHES.size(); }
+}
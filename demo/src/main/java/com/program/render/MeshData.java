@@ -0,0 +1,34 @@
+package com.program.render;
+
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.shape.VertexFormat;
+
+/**
+ * The raw arrays of a mesh in the POINT_NORMAL_TEXCOORD vertex format, before they are handed to a TriangleMesh.
+ */
+public class MeshData {
+
+    public final float[] points;
+    public final float[] texCoords;
+    public final float[] normals;
+    public final int[] faces; // Each vertex of a face is stored as point, normal, texCoord indices
+
+    public MeshData(float[] points, float[] texCoords, float[] normals, int[] faces) {
+        this.points = points;
+        this.texCoords = texCoords;
+        this.normals = normals;
+        this.faces = faces;
+    }
+
+    /**
+     * @return A new TriangleMesh, filled with a single bulk copy per array.
+     */
+    public TriangleMesh toTriangleMesh() {
+        TriangleMesh mesh = new TriangleMesh(VertexFormat.POINT_NORMAL_TEXCOORD);
+        mesh.getPoints().setAll(points);
+        mesh.getTexCoords().setAll(texCoords);
+        mesh.getNormals().setAll(normals);
+        mesh.getFaces().setAll(faces);
+        return mesh;
+    }
+}
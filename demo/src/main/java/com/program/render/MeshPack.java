@@ -0,0 +1,206 @@
+package com.program.render;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A single binary file holding the precompiled geometry of every tile asset, so that no .obj text has to be parsed at runtime.
+ * <p>
+ * Layout (little-endian): magic, version, entry count, then one index entry per asset
+ * (name length, name, point/texCoord/normal/face counts, data offset, size and modification time of the source .obj file),
+ * then the raw float and int arrays.
+ * <p>
+ * The pack is built from the .obj files by running this class, e.g. with {@code mvn -Ppack-meshes process-classes}. An asset
+ * whose .obj file was edited since is stale, see isUpToDate, so it is parsed from the .obj file until the pack is rebuilt.
+ */
+public class MeshPack {
+
+    public static final String PACK_PATH = "demo/target/meshes.pack";
+
+    private static final int MAGIC = 0x314B504D; // "MPK1"
+    private static final int VERSION = 2;
+
+    private static class Entry {
+        int pointCount, texCoordCount, normalCount, faceCount;
+        long offset;
+        long sourceSize, sourceModified; // Of the .obj file the asset was packed from
+    }
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private MeshPack(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalStateException("Not a version " + VERSION + " mesh pack");
+        }
+        int entryCount = buffer.getInt();
+        for (int i = 0; i < entryCount; i++) {
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            Entry entry = new Entry();
+            entry.pointCount = buffer.getInt();
+            entry.texCoordCount = buffer.getInt();
+            entry.normalCount = buffer.getInt();
+            entry.faceCount = buffer.getInt();
+            entry.offset = buffer.getLong();
+            entry.sourceSize = buffer.getLong();
+            entry.sourceModified = buffer.getLong();
+            entries.put(new String(name, StandardCharsets.US_ASCII), entry);
+        }
+    }
+
+    /**
+     * Memory-maps a mesh pack and reads its index table. The geometry itself is only copied out when it is requested.
+     * @param path The path of the pack file.
+     * @return The opened pack, or null if the file does not exist or cannot be read.
+     */
+    public static MeshPack open(String path) {
+        Path file = Paths.get(path);
+        if (!file.toFile().isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new MeshPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Exception thrown when reading mesh pack `" + path + "`, falling back to .obj files");
+        }
+        return null;
+    }
+
+    /**
+     * @param name The asset name, e.g. "forest3".
+     * @return True if the pack holds the asset.
+     */
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * @param name The asset name, e.g. "forest3".
+     * @param source The .obj file of the asset.
+     * @return True if the pack holds the asset and the .obj file has the size and modification time it was packed with, or
+     * if there is no .obj file to be newer than the pack.
+     */
+    public boolean isUpToDate(String name, File source) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return false;
+        }
+        return !source.isFile() || (source.length() == entry.sourceSize && source.lastModified() == entry.sourceModified);
+    }
+
+    /**
+     * Copies the arrays of an asset straight out of the mapped file.
+     * @param name The asset name, e.g. "forest3".
+     * @return The geometry of the asset, or null if the pack does not hold it.
+     */
+    public MeshData get(String name) {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer data = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        data.position((int) entry.offset);
+        float[] points = new float[entry.pointCount];
+        float[] texCoords = new float[entry.texCoordCount];
+        float[] normals = new float[entry.normalCount];
+        int[] faces = new int[entry.faceCount];
+        data.asFloatBuffer().get(points);
+        data.position(data.position() + points.length * Float.BYTES);
+        data.asFloatBuffer().get(texCoords);
+        data.position(data.position() + texCoords.length * Float.BYTES);
+        data.asFloatBuffer().get(normals);
+        data.position(data.position() + normals.length * Float.BYTES);
+        data.asIntBuffer().get(faces);
+        return new MeshData(points, texCoords, normals, faces);
+    }
+
+    /**
+     * Writes a mesh pack holding the given assets.
+     * @param path The path of the pack file, which is overwritten if it exists.
+     * @param names The asset names.
+     * @param meshes The geometry of each asset, in the same order as the names.
+     * @param sources The .obj file each asset was read from, in the same order as the names.
+     */
+    public static void write(String path, String[] names, MeshData[] meshes, File[] sources) throws IOException {
+        int indexSize = 3 * Integer.BYTES;
+        for (String name : names) {
+            indexSize += Short.BYTES + name.length() + 4 * Integer.BYTES + 3 * Long.BYTES;
+        }
+        ByteBuffer index = ByteBuffer.allocate(indexSize).order(ByteOrder.LITTLE_ENDIAN);
+        index.putInt(MAGIC).putInt(VERSION).putInt(names.length);
+        long offset = indexSize;
+        for (int i = 0; i < names.length; i++) {
+            MeshData mesh = meshes[i];
+            byte[] name = names[i].getBytes(StandardCharsets.US_ASCII);
+            index.putShort((short) name.length).put(name);
+            index.putInt(mesh.points.length).putInt(mesh.texCoords.length).putInt(mesh.normals.length).putInt(mesh.faces.length);
+            index.putLong(offset).putLong(sources[i].length()).putLong(sources[i].lastModified());
+            offset += (long) (mesh.points.length + mesh.texCoords.length + mesh.normals.length + mesh.faces.length) * Float.BYTES;
+        }
+        index.flip();
+
+        Path file = Paths.get(path);
+        if (file.getParent() != null) {
+            file.getParent().toFile().mkdirs();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(index, channel);
+            for (MeshData mesh : meshes) {
+                ByteBuffer data = ByteBuffer.allocate((mesh.points.length + mesh.texCoords.length
+                        + mesh.normals.length + mesh.faces.length) * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                data.asFloatBuffer().put(mesh.points).put(mesh.texCoords).put(mesh.normals);
+                data.position((mesh.points.length + mesh.texCoords.length + mesh.normals.length) * Float.BYTES);
+                data.asIntBuffer().put(mesh.faces);
+                data.position(0);
+                write(data, channel);
+            }
+        }
+    }
+
+    // A single write may return before the whole buffer is written
+    private static void write(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Build-time converter that packs every .obj file of a directory into one mesh pack.
+     * @param args The directory of the .obj files and the path of the pack file, defaulting to the asset directory and PACK_PATH.
+     */
+    public static void main(String[] args) throws IOException {
+        String objectsPath = args.length > 0 ? args[0] : MeshCache.OBJECTS_PATH;
+        String packPath = args.length > 1 ? args[1] : PACK_PATH;
+
+        File[] files = new File(objectsPath).listFiles((dir, name) -> name.endsWith(".obj"));
+        if (files == null || files.length == 0) {
+            System.out.println("No .obj files found in `" + objectsPath + "`");
+            return;
+        }
+        Arrays.sort(files); // Keep the pack byte-for-byte reproducible
+        String[] names = new String[files.length];
+        MeshData[] meshes = new MeshData[files.length];
+        for (int i = 0; i < files.length; i++) {
+            names[i] = files[i].getName().replace(".obj", "");
+            meshes[i] = ObjLoader.readObj(files[i].getPath());
+        }
+        write(packPath, names, meshes, files);
+        System.out.println("Packed " + files.length + " meshes into `" + packPath + "`");
+    }
+}
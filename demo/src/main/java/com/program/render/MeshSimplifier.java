@@ -0,0 +1,118 @@
+package com.program.render;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Simplifies meshes by vertex clustering: the bounding box of a mesh is divided into a grid of equal cubes, the points in
+ * each cube are merged into their average, and the faces that collapse in the process are dropped. The outline and the
+ * bulk of an asset survive at a fraction of its faces, which is how ChunkMesh can merge the grown assets.
+ */
+public class MeshSimplifier {
+
+    private static final int MAX_CELLS = 64; // Cubes along the longest side of the finest grid that is tried
+
+    /**
+     * @param data The mesh to simplify, which is left as it is.
+     * @param maxFaces The most faces the result may have.
+     * @return The mesh itself if it has no more than maxFaces faces, or else the finest clustering of it that does. The
+     * texture coordinates are shared with the original, and the normals of the points that were kept are kept with them.
+     */
+    public static MeshData simplify(MeshData data, int maxFaces) {
+        if (data.faces.length / 9 <= maxFaces) {
+            return data;
+        }
+        for (int cells = MAX_CELLS; cells > 0; cells = cells * 3 / 4) {
+            MeshData simplified = cluster(data, cells);
+            if (simplified.faces.length / 9 <= maxFaces) {
+                return simplified;
+            }
+        }
+        return cluster(data, 1); // Unreachable, as a single cube collapses every face
+    }
+
+    private static MeshData cluster(MeshData data, int cells) {
+        float[] points = data.points;
+        int pointCount = points.length / 3;
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i = 0; i < points.length; i++) {
+            min[i % 3] = Math.min(min[i % 3], points[i]);
+            max[i % 3] = Math.max(max[i % 3], points[i]);
+        }
+        double side = Math.max(max[0] - min[0], Math.max(max[1] - min[1], max[2] - min[2])) / cells;
+        if (side == 0) {
+            return data;
+        }
+        int[] size = new int[3]; // The number of cubes along each axis, which is lower than cells along the shorter sides
+        for (int axis = 0; axis < 3; axis++) {
+            size[axis] = Math.min(cells, (int) ((max[axis] - min[axis]) / side)) + 1;
+        }
+
+        // Average the points of every cube
+        int[] cellOf = new int[pointCount];
+        double[] sums = new double[size[0] * size[1] * size[2] * 3];
+        int[] counts = new int[size[0] * size[1] * size[2]];
+        for (int p = 0; p < pointCount; p++) {
+            int cell = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                int index = Math.min(size[axis] - 1, (int) ((points[p * 3 + axis] - min[axis]) / side));
+                cell = cell * size[axis] + index;
+            }
+            cellOf[p] = cell;
+            counts[cell]++;
+            for (int axis = 0; axis < 3; axis++) {
+                sums[cell * 3 + axis] += points[p * 3 + axis];
+            }
+        }
+
+        // Keep the faces whose corners ended up in three different cubes, once each, numbering the cubes and normals they use
+        int[] pointOf = new int[counts.length];
+        Arrays.fill(pointOf, -1);
+        int[] normalOf = new int[data.normals.length / 3];
+        Arrays.fill(normalOf, -1);
+        float[] newPoints = new float[points.length];
+        float[] newNormals = new float[data.normals.length];
+        int[] newFaces = new int[data.faces.length];
+        int newPointCount = 0, newNormalCount = 0, newFaceCount = 0;
+        HashSet<Long> kept = new HashSet<>();
+        int[] corners = new int[3];
+        for (int f = 0; f < data.faces.length; f += 9) {
+            for (int c = 0; c < 3; c++) {
+                corners[c] = cellOf[data.faces[f + c * 3]];
+            }
+            if (corners[0] == corners[1] || corners[1] == corners[2] || corners[0] == corners[2] || !kept.add(faceKey(corners))) {
+                continue;
+            }
+            for (int c = 0; c < 3; c++) {
+                int cell = corners[c];
+                if (pointOf[cell] < 0) {
+                    pointOf[cell] = newPointCount++;
+                    for (int axis = 0; axis < 3; axis++) {
+                        newPoints[pointOf[cell] * 3 + axis] = (float) (sums[cell * 3 + axis] / counts[cell]);
+                    }
+                }
+                int normal = data.faces[f + c * 3 + 1];
+                if (normalOf[normal] < 0) {
+                    normalOf[normal] = newNormalCount++;
+                    System.arraycopy(data.normals, normal * 3, newNormals, normalOf[normal] * 3, 3);
+                }
+                newFaces[newFaceCount++] = pointOf[cell];
+                newFaces[newFaceCount++] = normalOf[normal];
+                newFaces[newFaceCount++] = data.faces[f + c * 3 + 2];
+            }
+        }
+        return new MeshData(Arrays.copyOf(newPoints, newPointCount * 3), data.texCoords,
+                Arrays.copyOf(newNormals, newNormalCount * 3), Arrays.copyOf(newFaces, newFaceCount));
+    }
+
+    // The same for every rotation of the corners, so that a face is only kept once, but not for the opposite winding
+    private static long faceKey(int[] corners) {
+        int first = corners[0] < corners[1] ? (corners[0] < corners[2] ? 0 : 2) : (corners[1] < corners[2] ? 1 : 2);
+        long key = 0;
+        for (int c = 0; c < 3; c++) {
+            key = key << 21 | corners[(first + c) % 3];
+        }
+        return key;
+    }
+}
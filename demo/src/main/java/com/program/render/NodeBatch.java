@@ -0,0 +1,59 @@
+package com.program.render;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+/**
+ * Collects the nodes to add to and remove from a list of children and applies them in one go, so that the list fires one
+ * change per flush instead of one per node, and a removal does not scan the whole list for every node removed.
+ */
+public class NodeBatch {
+
+    private final ObservableList<Node> children;
+    private final ArrayList<Node> added = new ArrayList<>(); // In order, which sets the order they are drawn in
+    private final HashSet<Node> removed = new HashSet<>(); // A set, since removeAll looks up every child in it
+
+    /**
+     * @param children The children of a parent, e.g. Group.getChildren.
+     */
+    public NodeBatch(ObservableList<Node> children) {
+        this.children = children;
+    }
+
+    public void add(Node node) {
+        if (!removed.remove(node)) {
+            added.add(node);
+        }
+    }
+
+    public void remove(Node node) {
+        if (!added.remove(node)) { // The node was never added if it is still waiting to be
+            removed.add(node);
+        }
+    }
+
+    /**
+     * Drops everything waiting to be applied, e.g. after the children were cleared.
+     */
+    public void clear() {
+        added.clear();
+        removed.clear();
+    }
+
+    /**
+     * Applies the additions and removals collected since the previous flush.
+     */
+    public void flush() {
+        if (!removed.isEmpty()) {
+            children.removeAll(removed);
+            removed.clear();
+        }
+        if (!added.isEmpty()) {
+            children.addAll(added);
+            added.clear();
+        }
+    }
+}
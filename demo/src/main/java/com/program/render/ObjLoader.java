@@ -0,0 +1,233 @@
+package com.program.render;
+
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class ObjLoader {
+
+    // Powers of ten used to scale the digits of a parsed number back into a fraction
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final byte[] bytes;
+    private int pos = 0;
+
+    private float[] points = new float[256];
+    private float[] texCoords = new float[256];
+    private float[] normals = new float[256];
+    private int[] faces = new int[256];
+    private int pointCount, texCoordCount, normalCount, faceCount;
+
+    private ObjLoader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static MeshView loadObj(String path) {
+        return new MeshView(parseObj(path));
+    }
+
+    /**
+     * Reads and parses an .obj file. Prefer MeshCache when the same file is requested more than once.
+     * @param path The path of the .obj file.
+     * @return A new TriangleMesh holding the geometry of the file.
+     */
+    public static TriangleMesh parseObj(String path) {
+        return readObj(path).toTriangleMesh();
+    }
+
+    /**
+     * Reads an .obj file and parses it in a single pass over its bytes, without splitting it into lines or strings.
+     * @param path The path of the .obj file.
+     * @return The geometry of the file, which is empty if the file could not be read.
+     */
+    public static MeshData readObj(String path) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(Paths.get(path));
+        } catch (Exception e) {
+            System.out.println("Exception thrown when reading `" + path + "`");
+            bytes = new byte[0];
+        }
+        return new ObjLoader(bytes).parse();
+    }
+
+    private MeshData parse() {
+        while (pos < bytes.length) {
+            skipWhitespace();
+            if (pos >= bytes.length) {
+                break;
+            }
+            switch (bytes[pos]) {
+                case 'f':
+                    pos++;
+                    parseFace();
+                    break;
+                case 'v':
+                    pos++;
+                    byte next = pos < bytes.length ? bytes[pos] : (byte) '\n';
+                    switch (next) {
+                        // Geometric vertices
+                        case ' ':
+                        case '\t':
+                            parseFloats(0);
+                            break;
+                        // Texture coordinates
+                        case 't':
+                            pos++;
+                            parseFloats(1);
+                            break;
+                        // Vertex normals
+                        case 'n':
+                            pos++;
+                            parseFloats(2);
+                            break;
+                        case 'p':
+                            break;
+                        default:
+                            System.out.println("loadObj: Bad vertex on byte " + pos);
+                            break;
+                    }
+                    break;
+                default: // Skip all other lines, such as #, g, l, o and s (not important)
+                    break;
+            }
+            skipLine();
+        }
+        return new MeshData(Arrays.copyOf(points, pointCount), Arrays.copyOf(texCoords, texCoordCount),
+                Arrays.copyOf(normals, normalCount), Arrays.copyOf(faces, faceCount));
+    }
+
+    /**
+     * Parses every number left on the current line into one of the float arrays.
+     * @param target 0 for points, 1 for texCoords and 2 for normals.
+     */
+    private void parseFloats(int target) {
+        while (skipSpaces()) {
+            int start = pos;
+            float value = parseFloat();
+            if (pos == start) { // Not a number, so give up on the rest of the line
+                System.out.println("loadObj: Bad number on byte " + pos);
+                return;
+            }
+            switch (target) {
+                case 0:
+                    if (pointCount == points.length) points = Arrays.copyOf(points, pointCount * 2);
+                    points[pointCount++] = value;
+                    break;
+                case 1:
+                    if (texCoordCount == texCoords.length) texCoords = Arrays.copyOf(texCoords, texCoordCount * 2);
+                    texCoords[texCoordCount++] = value;
+                    break;
+                default:
+                    if (normalCount == normals.length) normals = Arrays.copyOf(normals, normalCount * 2);
+                    normals[normalCount++] = value;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Parses every point/texCoord/normal triplet left on the current line into the faces array.
+     */
+    private void parseFace() {
+        while (skipSpaces()) {
+            int start = pos;
+            int point = parseInt();
+            if (pos == start) {
+                System.out.println("loadObj: Bad face on byte " + pos);
+                return;
+            }
+            pos++; // Skip the '/'
+            int texCoord = parseInt();
+            pos++;
+            int normal = parseInt();
+            if (faceCount + 3 > faces.length) faces = Arrays.copyOf(faces, faces.length * 2);
+            // The .obj indices start at 1 and are ordered p/t/n, whereas the vertex format expects p/n/t
+            faces[faceCount++] = point - 1;
+            faces[faceCount++] = normal - 1;
+            faces[faceCount++] = texCoord - 1;
+        }
+    }
+
+    private float parseFloat() {
+        boolean negative = false;
+        if (bytes[pos] == '-' || bytes[pos] == '+') {
+            negative = bytes[pos++] == '-';
+        }
+        long digits = 0;
+        int decimals = 0;
+        int dropped = 0; // Digits that no longer fit in the long, which only affect the magnitude
+        boolean fraction = false;
+        while (pos < bytes.length) {
+            byte c = bytes[pos];
+            if (c >= '0' && c <= '9') {
+                if (digits < Long.MAX_VALUE / 10 - 9) {
+                    digits = digits * 10 + (c - '0');
+                    if (fraction) decimals++;
+                }
+                else if (!fraction) {
+                    dropped++;
+                }
+            }
+            else if (c == '.') {
+                fraction = true;
+            }
+            else {
+                break;
+            }
+            pos++;
+        }
+        int exponent = dropped - decimals;
+        if (pos < bytes.length && (bytes[pos] == 'e' || bytes[pos] == 'E')) {
+            pos++;
+            exponent += parseInt();
+        }
+        double value = digits;
+        if (exponent < 0) {
+            value = -exponent < POWERS_OF_TEN.length ? value / POWERS_OF_TEN[-exponent] : value * Math.pow(10, exponent);
+        }
+        else if (exponent > 0) {
+            value = exponent < POWERS_OF_TEN.length ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    private int parseInt() {
+        boolean negative = false;
+        if (pos < bytes.length && (bytes[pos] == '-' || bytes[pos] == '+')) {
+            negative = bytes[pos++] == '-';
+        }
+        int value = 0;
+        while (pos < bytes.length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+            value = value * 10 + (bytes[pos++] - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips spaces and tabs on the current line.
+     * @return True if there is anything left on the current line.
+     */
+    private boolean skipSpaces() {
+        while (pos < bytes.length && (bytes[pos] == ' ' || bytes[pos] == '\t')) {
+            pos++;
+        }
+        return pos < bytes.length && bytes[pos] != '\n' && bytes[pos] != '\r';
+    }
+
+    private void skipWhitespace() {
+        while (pos < bytes.length && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\n' || bytes[pos] == '\r')) {
+            pos++;
+        }
+    }
+
+    private void skipLine() {
+        while (pos < bytes.length && bytes[pos] != '\n') {
+            pos++;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.program.render;
+
+import com.program.util.Histogram;
+import com.program.util.RateMeter;
+
+/**
+ * Records the pulses of the JavaFX thread and the scene updates done in them, without allocating or locking. The front end
+ * reports to it from the JavaFX thread, and JMX reads it from its own.
+ */
+public class RenderStats implements RenderStatsMBean {
+
+    private final Histogram pulses = new Histogram(); // The time between pulses, in nanos
+    private final Histogram updates = new Histogram(); // In nanos
+    private final RateMeter pulseRate = new RateMeter();
+    private final RateMeter requestRate = new RateMeter();
+    private final RateMeter loadRate = new RateMeter();
+    private long lastPulse = 0; // Only used on the JavaFX thread
+    private volatile int nodeCount = 0;
+    private volatile int visibleNodeCount = 0;
+
+    /**
+     * @param now The timestamp of the pulse in nanoseconds, as handed to an AnimationTimer.
+     */
+    public void pulse(long now) {
+        if (lastPulse != 0) {
+            pulses.record(now - lastPulse);
+        }
+        lastPulse = now;
+    }
+
+    /**
+     * @param nanos The time spent applying a ChangeSet to the scene, see SceneRenderer.update.
+     */
+    public void sceneUpdated(long nanos) {
+        updates.record(nanos);
+    }
+
+    /**
+     * @param nodes The number of meshes in the scene, see SceneRenderer.getNodeCount.
+     * @param visibleNodes The number of top-level nodes in view, see SceneRenderer.getVisibleNodeCount.
+     */
+    public void setNodeCounts(int nodes, int visibleNodes) {
+        nodeCount = nodes;
+        visibleNodeCount = visibleNodes;
+    }
+
+    public long getMeshRequests() { return MeshCache.getHits() + MeshCache.getMisses(); }
+
+    public double getMeshRequestsPerSecond() { return requestRate.perSecond(getMeshRequests()); }
+
+    public long getMeshLoads() { return MeshCache.getLoads(); }
+
+    public double getMeshLoadsPerSecond() { return loadRate.perSecond(getMeshLoads()); }
+
+    public int getNodeCount() { return nodeCount; }
+
+    public int getVisibleNodeCount() { return visibleNodeCount; }
+
+    public double getPulsesPerSecond() { return pulseRate.perSecond(pulses.count()); }
+
+    public double getMeanPulseMillis() { return pulses.mean() / 1e6; }
+
+    public double getP99PulseMillis() { return pulses.percentile(0.99) / 1e6; }
+
+    public double getMaxPulseMillis() { return pulses.max() / 1e6; }
+
+    public double getMeanSceneUpdateMicros() { return updates.mean() / 1e3; }
+
+    public double getP99SceneUpdateMicros() { return updates.percentile(0.99) / 1e3; }
+
+    public void reset() {
+        pulses.reset();
+        updates.reset();
+    }
+}
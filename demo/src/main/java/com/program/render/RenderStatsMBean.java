@@ -0,0 +1,45 @@
+package com.program.render;
+
+/**
+ * What rendering costs on the JavaFX thread, as seen over JMX.
+ */
+public interface RenderStatsMBean {
+
+    long getMeshRequests();
+
+    double getMeshRequestsPerSecond();
+
+    /**
+     * @return The number of assets read from the pack or their .obj file, which should stop growing once all are cached.
+     */
+    long getMeshLoads();
+
+    double getMeshLoadsPerSecond();
+
+    int getNodeCount();
+
+    int getVisibleNodeCount();
+
+    double getPulsesPerSecond();
+
+    /**
+     * @return The mean time between two pulses of the JavaFX thread, which is the frame time.
+     */
+    double getMeanPulseMillis();
+
+    double getP99PulseMillis();
+
+    double getMaxPulseMillis();
+
+    /**
+     * @return The mean time spent applying the changes of the simulations to the scene.
+     */
+    double getMeanSceneUpdateMicros();
+
+    double getP99SceneUpdateMicros();
+
+    /**
+     * Forgets the pulse and update times recorded so far.
+     */
+    void reset();
+}
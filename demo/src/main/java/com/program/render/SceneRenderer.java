@@ -0,0 +1,235 @@
+package com.program.render;
+
+import com.program.World;
+import com.program.engine.ChangeSet;
+import com.program.engine.ChangeStream;
+import com.program.objects.tile.Tile;
+import com.program.util.ArrayList;
+import com.program.util.IntArrayList;
+import com.program.util.LongObjectMap;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.PickResult;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Mirrors the occupied tiles of the engine's world as meshes in the 3D scene.
+ * The scene is only touched in update, which applies everything that changed since the previous update in one go.
+ */
+public class SceneRenderer {
+
+    public enum Mode {
+        TILES, // One MeshView per tile
+        CHUNKS // One merged MeshView per chunk of tiles, see ChunkMesh, with less detail away from the camera
+    }
+
+    private final Group spatial; // Contains all the 3D elements
+    private final ChangeStream.Subscription changes;
+    private Mode mode = Mode.TILES;
+
+    private World world; // The world the shown tiles belong to, only ever read through worldAccess
+    private final IntArrayList states = new IntArrayList(); // The packed state shown of each tile, by id, or NOT_OCCUPIED
+    private final IntArrayList qs = new IntArrayList(); // The axial column of each tile, by id, as recorded by the changes
+    private final IntArrayList rs = new IntArrayList(); // The axial row of each tile, by id
+    private final LongObjectMap<TileView> views = new LongObjectMap<>(); // Keyed by the id of the tile
+    private final LongObjectMap<ChunkMesh> chunks = new LongObjectMap<>(); // Keyed by ChunkMesh.chunkKey
+    private final ArrayList<ChunkMesh> chunkList = new ArrayList<>(); // The values of chunks, in order of creation
+    private final ArrayList<ChunkMesh> dirtyChunks = new ArrayList<>();
+    private final MeshBuilder builder = new MeshBuilder(); // Shared by every chunk, since they are rebuilt one at a time
+    private final CullGrid cullGrid = new CullGrid(); // Every top-level node, by the chunk of the tiles it shows
+    private final NodeBatch batch; // The top-level nodes added since the previous update
+
+    private Point3D eye = null; // The camera in the coordinates of spatial, or null if distance does not matter
+
+    /**
+     * Creates a renderer for a world that is changed on the same thread as the renderer is updated on.
+     */
+    public SceneRenderer(Group spatial, ChangeStream.Subscription changes) {
+        this(spatial, changes, Runnable::run);
+    }
+
+    /**
+     * @param spatial The group to add the nodes of the tiles to.
+     * @param changes The subscription to the changes of the engine.
+     * @param worldAccess Runs the tasks that read the world directly rather than through the changes, e.g. a TickScheduler
+     * if the world is changed on another thread.
+     */
+    public SceneRenderer(Group spatial, ChangeStream.Subscription changes, Executor worldAccess) {
+        this.spatial = spatial;
+        this.changes = changes;
+        batch = new NodeBatch(spatial.getChildren());
+        // One handler for every tile, finding the tile from where the click hit rather than from the node it hit
+        spatial.addEventHandler(MouseEvent.MOUSE_CLICKED, e -> {
+            PickResult pick = e.getPickResult();
+            World clicked = world;
+            if (pick.getIntersectedNode() == null || clicked == null) {
+                return;
+            }
+            Point3D point = spatial.sceneToLocal(pick.getIntersectedNode().localToScene(pick.getIntersectedPoint()));
+            long key = HexLayout.keyAt(point);
+            worldAccess.execute(() -> {
+                Tile tile = clicked.TILE_INDEX.get(key);
+                if (tile != null) {
+                    System.out.println("Tile clicked: " + tile);
+                }
+            });
+        });
+    }
+
+    public Mode getMode() { return mode; }
+
+    /**
+     * Switches how tiles are turned into nodes, rebuilding the scene from the states currently shown.
+     */
+    public void setMode(Mode mode) {
+        if (mode == this.mode) {
+            return;
+        }
+        this.mode = mode;
+        clearScene();
+        for (int id = 0; id < states.size(); id++) {
+            if (states.get(id) != ChangeSet.NOT_OCCUPIED) {
+                show(id, qs.get(id), rs.get(id), states.get(id), true);
+            }
+        }
+        rebuildDirtyChunks();
+        batch.flush();
+    }
+
+    /**
+     * Places the camera that the level of detail of every chunk is chosen for. Only the chunks mode has levels of detail.
+     * @param eye The position of the camera in the coordinates of the spatial group, so that zooming, which scales the group,
+     * moves the camera away from the tiles. Null for a camera whose distance does not change the size of what it shows,
+     * which gets the full detail everywhere. Nothing is done if the camera did not move, so this can be called every frame.
+     */
+    public void setViewpoint(Point3D eye) {
+        if (eye == null ? this.eye != null : !eye.equals(this.eye)) {
+            this.eye = eye;
+            updateLevels(); // Straight away, since the changes may only be drained once the simulations tick again
+            rebuildDirtyChunks();
+            batch.flush();
+        }
+    }
+
+    /**
+     * Hides the nodes of the tiles outside a range, e.g. the one found by Viewport. Nothing is done if the range did not
+     * change, so this can be called every frame.
+     * @param range The range of the tiles in view, or null to show everything.
+     */
+    public void setVisibleRange(HexRange range) {
+        cullGrid.setRange(range);
+    }
+
+    /**
+     * @return The number of top-level nodes in the scene that are not hidden.
+     */
+    public int getVisibleNodeCount() {
+        return cullGrid.visibleCount();
+    }
+
+    /**
+     * @return The number of meshes in the scene, which is what the chunks mode keeps down.
+     */
+    public int getNodeCount() {
+        return spatial.getChildren().size(); // A mesh per tile, or per chunk
+    }
+
+    /**
+     * Brings the scene up to date with the world. Meant to be called on the JavaFX thread, at most once per frame.
+     * Only the changes are read, never the world itself, so the simulations may keep running on another thread.
+     */
+    public void update() {
+        ChangeSet changeSet = changes.drain();
+        if (changeSet.isReset()) {
+            clearScene();
+            states.clear();
+            qs.clear();
+            rs.clear();
+        }
+        world = changeSet.getWorld();
+        for (int i = 0; i < changeSet.size(); i++) {
+            if (changeSet.isUnchanged(i)) {
+                continue;
+            }
+            int id = changeSet.tileId(i);
+            while (states.size() <= id) {
+                states.add(ChangeSet.NOT_OCCUPIED);
+                qs.add(0);
+                rs.add(0);
+            }
+            boolean isNew = states.get(id) == ChangeSet.NOT_OCCUPIED; // The tile became occupied since the previous update
+            states.set(id, changeSet.newState(i));
+            qs.set(id, changeSet.q(i));
+            rs.set(id, changeSet.r(i));
+            show(id, changeSet.q(i), changeSet.r(i), changeSet.newState(i), isNew);
+        }
+        rebuildDirtyChunks(); // Each chunk is rebuilt once, however many of its tiles changed
+        batch.flush(); // All the new nodes join the scene graph in one change
+    }
+
+    private void show(int id, int q, int r, int state, boolean isNew) {
+        if (mode == Mode.CHUNKS) {
+            long key = ChunkMesh.chunkKey(q, r);
+            ChunkMesh chunk = chunks.get(key);
+            if (chunk == null) {
+                chunk = new ChunkMesh(key);
+                chunks.put(key, chunk);
+                chunkList.add(chunk);
+                chunk.setLevel(chooseLevel(chunk));
+                batch.add(chunk.view);
+                cullGrid.add(q, r, chunk.view);
+            }
+            if (!chunk.isDirty()) {
+                dirtyChunks.add(chunk);
+            }
+            chunk.set(q, r, state);
+            return;
+        }
+
+        if (isNew) {
+            TileView view = new TileView(q, r, state);
+            views.put(id, view);
+            batch.add(view.mesh);
+            cullGrid.add(q, r, view.mesh);
+            return;
+        }
+        TileView view = views.get(id);
+        view.setState(state);
+        view.update(); // Swaps the mesh in place, so the scene graph does not change
+    }
+
+    private void updateLevels() {
+        for (ChunkMesh chunk : chunkList) {
+            DetailLevel level = chooseLevel(chunk);
+            if (level != chunk.getLevel()) {
+                if (!chunk.isDirty()) {
+                    dirtyChunks.add(chunk);
+                }
+                chunk.setLevel(level);
+            }
+        }
+    }
+
+    private DetailLevel chooseLevel(ChunkMesh chunk) {
+        return eye == null ? DetailLevel.FULL : DetailLevel.choose(chunk.getLevel(), eye.distance(chunk.center));
+    }
+
+    private void rebuildDirtyChunks() {
+        for (ChunkMesh chunk : dirtyChunks) {
+            chunk.rebuild(builder);
+        }
+        dirtyChunks.clear();
+    }
+
+    private void clearScene() {
+        spatial.getChildren().clear();
+        batch.clear();
+        views.clear();
+        chunks.clear();
+        chunkList.clear();
+        dirtyChunks.clear();
+        cullGrid.clear();
+    }
+}
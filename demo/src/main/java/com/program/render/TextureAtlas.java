@@ -0,0 +1,61 @@
+package com.program.render;
+
+import com.program.objects.tile.TileType;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+
+/**
+ * A texture holding one texel per tile type, so that tiles of every type can share a single material.
+ * A mesh picks the colour of a tile through its texture coordinates, which is what lets ChunkMesh merge tiles of different
+ * types into one mesh.
+ */
+public class TextureAtlas {
+
+    // The colour of each tile type, by ordinal
+    private static final Color[] COLORS = new Color[TileType.VALUES.length];
+    static {
+        COLORS[TileType.GRASS.ordinal()] = Color.LIGHTGREEN;
+        COLORS[TileType.FOREST.ordinal()] = Color.DARKGREEN;
+        COLORS[TileType.RIVER.ordinal()] = Color.DEEPSKYBLUE;
+        COLORS[TileType.VILLAGE.ordinal()] = Color.SADDLEBROWN;
+        COLORS[TileType.SAND.ordinal()] = Color.CORNSILK;
+        COLORS[TileType.RUBBLE.ordinal()] = Color.DARKGREY;
+    }
+
+    private static PhongMaterial material = null; // Created on first use, since images need the JavaFX toolkit
+
+    public static Color getColor(TileType type) {
+        return COLORS[type.ordinal()];
+    }
+
+    /**
+     * @return The texture coordinates of every type as (u, v) pairs in order of ordinal, so that the texCoord index of a
+     * type in a mesh holding these is its ordinal.
+     */
+    public static float[] texCoords() {
+        float[] texCoords = new float[COLORS.length * 2];
+        for (int i = 0; i < COLORS.length; i++) {
+            texCoords[i * 2] = (i + 0.5f) / COLORS.length; // The center of the texel, so filtering never blends in a neighbour
+            texCoords[i * 2 + 1] = 0.5f;
+        }
+        return texCoords;
+    }
+
+    /**
+     * @return The material shared by every mesh textured with the atlas.
+     */
+    public static PhongMaterial getMaterial() {
+        if (material == null) {
+            WritableImage image = new WritableImage(COLORS.length, 1);
+            PixelWriter writer = image.getPixelWriter();
+            for (int i = 0; i < COLORS.length; i++) {
+                writer.setColor(i, 0, COLORS[i]);
+            }
+            material = new PhongMaterial(Color.WHITE);
+            material.setDiffuseMap(image);
+        }
+        return material;
+    }
+}
@@ -0,0 +1,87 @@
+package com.program.render;
+
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Rotate;
+
+/**
+ * How every tile of one type and stage looks, shared between all of them so that a TileView only has to hold its tile, its
+ * state and its node. The mesh, material and rotations must be treated as immutable, since a change to one would show up
+ * on every tile using it.
+ */
+public class TileAppearance {
+
+    private static final TileAppearance[][] APPEARANCES = new TileAppearance[TileType.VALUES.length][TileStore.MAX_STAGE + 1];
+    private static final PhongMaterial[] MATERIALS = new PhongMaterial[TileType.VALUES.length]; // Shared by every stage
+
+    public final TileType type;
+    public final int stage;
+    public final PhongMaterial material;
+    public final double pivotX; // The X coordinate, relative to the center of the tile, that the mesh is rotated around
+    private final Rotate[] rotations = new Rotate[TileStore.ROTATIONS.length];
+
+    private TileAppearance(TileType type, int stage) {
+        this.type = type;
+        this.stage = stage;
+        if (MATERIALS[type.ordinal()] == null) {
+            MATERIALS[type.ordinal()] = new PhongMaterial(TextureAtlas.getColor(type));
+        }
+        material = MATERIALS[type.ordinal()];
+        // To accommodate for the tree geometry that is not covered by the tile underneath
+        pivotX = type == TileType.FOREST && stage == 3 ? -0.437223 : 0;
+        for (int i = 0; i < rotations.length; i++) {
+            rotations[i] = new Rotate(TileStore.ROTATIONS[i], pivotX, 0, 0, Rotate.Z_AXIS);
+        }
+    }
+
+    /**
+     * @return The appearance shared by every tile of the given type and stage.
+     */
+    public static TileAppearance of(TileType type, int stage) {
+        TileAppearance appearance = APPEARANCES[type.ordinal()][stage];
+        if (appearance == null) {
+            appearance = new TileAppearance(type, stage);
+            APPEARANCES[type.ordinal()][stage] = appearance;
+        }
+        return appearance;
+    }
+
+    /**
+     * @return The appearance of a packed state, see TileStore.state.
+     */
+    public static TileAppearance of(int state) {
+        return of(TileStore.stateType(state), TileStore.stateStage(state));
+    }
+
+    /**
+     * @return The shared mesh of the asset, which is looked up in MeshCache every time so that invalidating it takes effect.
+     */
+    public TriangleMesh mesh() {
+        return MeshCache.getMesh(type.toString(), stage);
+    }
+
+    /**
+     * @return The raw arrays of the asset, e.g. to merge it into a ChunkMesh.
+     */
+    public MeshData meshData() {
+        return MeshCache.getMeshData(type.toString(), stage);
+    }
+
+    /**
+     * @param maxFaces The most faces the arrays may have.
+     * @return The raw arrays of the asset, or of a simplified version of it if it has more than maxFaces faces.
+     */
+    public MeshData simplifiedData(int maxFaces) {
+        return MeshCache.getSimplifiedData(type.toString(), stage, maxFaces);
+    }
+
+    /**
+     * @param index The index of a rotation in TileStore.ROTATIONS.
+     * @return The shared transform that rotates the mesh around the Z-axis.
+     */
+    public Rotate rotation(int index) {
+        return rotations[index];
+    }
+}
@@ -0,0 +1,61 @@
+package com.program.render;
+
+import com.program.objects.tile.TileStore;
+import javafx.geometry.Point3D;
+import javafx.scene.shape.MeshView;
+
+/**
+ * The on-screen representation of a tile, brought up to date with the tile's state whenever the simulation changes it.
+ * Everything about how the tile looks is shared through its TileAppearance, so a view only holds the state it shows and
+ * its node. Clicks are handled for the whole scene by SceneRenderer.
+ * <p>
+ * The node stays the same for the life of the view. A change of type or stage only swaps the mesh and material it shows,
+ * so the scene graph is left alone.
+ */
+public class TileView {
+
+    public final MeshView mesh = new MeshView();
+
+    // The packed state being shown (see TileStore.state), which the renderer sets from the change stream
+    private int state;
+    // What the node was last updated to, to skip the parts of an update that did not change
+    private TileAppearance appearance;
+    private int rotation = -1;
+
+    /**
+     * @param q The axial column of the tile to show.
+     * @param r The axial row of the tile to show.
+     * @param state The packed state to show.
+     */
+    public TileView(int q, int r, int state) {
+        this.state = state;
+
+        Point3D position = HexLayout.position(q, r);
+        mesh.setTranslateX(position.getX()); mesh.setTranslateY(position.getY()); mesh.setTranslateZ(position.getZ());
+        update();
+    }
+
+    /**
+     * Sets the state to show. Call update afterwards to apply it.
+     */
+    public void setState(int state) {
+        this.state = state;
+    }
+
+    /**
+     * Applies the state being shown to the node. This is done automatically in the constructor.
+     */
+    public void update() {
+        TileAppearance next = TileAppearance.of(state);
+        if (next != appearance) {
+            appearance = next;
+            mesh.setMesh(next.mesh()); // Shares the parsed mesh with every other tile of the same type and stage
+            mesh.setMaterial(next.material);
+            rotation = -1; // The pivot may have moved with the appearance
+        }
+        if (TileStore.stateRotation(state) != rotation) {
+            rotation = TileStore.stateRotation(state);
+            mesh.getTransforms().setAll(appearance.rotation(rotation));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.program.render;
+
+import javafx.geometry.Point3D;
+import javafx.scene.Camera;
+import javafx.scene.Node;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+
+/**
+ * Works out which tiles the camera of a subscene can see, as a range of axial coordinates.
+ * <p>
+ * Everything the camera can show lies inside its view frustum, clipped by the near and far clip planes, and every tile lies
+ * inside a thin slab around the XY-plane. The tiles in view are found from the corners of the intersection of the two,
+ * which is exact up to the margin of a tile and does not depend on how many tiles there are.
+ */
+public class Viewport {
+
+    public static final double TOP_Z = -51; // The top of the tallest asset
+    public static final double BOTTOM_Z = HexPrism.BOTTOM_Z;
+    private static final int MARGIN = 1; // In tiles, to cover the parts of a tile that reach past its center
+
+    // The frustum edges, as pairs of corner indices: the near rectangle, the far rectangle and the sides between them
+    private static final int[][] EDGES = {{0, 1}, {1, 3}, {3, 2}, {2, 0}, {4, 5}, {5, 7}, {7, 6}, {6, 4},
+            {0, 4}, {1, 5}, {2, 6}, {3, 7}};
+
+    /**
+     * @param subscene The subscene, whose camera must be a PerspectiveCamera with a fixed eye or a ParallelCamera.
+     * @param spatial The group holding the tiles, which may be scaled by the zoom.
+     * @return The range of the tiles that may be in view, or null if none can be.
+     */
+    public static HexRange visibleRange(SubScene subscene, Node spatial) {
+        return visibleRange(subscene.getCamera(), subscene.getWidth(), subscene.getHeight(), spatial);
+    }
+
+    /**
+     * @param camera A PerspectiveCamera with a fixed eye or a ParallelCamera.
+     * @param width The width of the view of the camera.
+     * @param height The height of the view of the camera.
+     * @param spatial The group holding the tiles, which may be scaled by the zoom.
+     * @return The range of the tiles that may be in view, or null if none can be.
+     */
+    public static HexRange visibleRange(Camera camera, double width, double height, Node spatial) {
+        // The corners of the near and then the far clip rectangle, in the coordinates of spatial
+        Point3D[] corners = new Point3D[8];
+        for (int i = 0; i < 8; i++) {
+            double x = (i & 1) == 0 ? 0 : width, y = (i & 2) == 0 ? 0 : height;
+            double depth = i < 4 ? camera.getNearClip() : camera.getFarClip();
+            Point3D corner;
+            if (camera instanceof PerspectiveCamera) { // The eye is at the origin of the camera, looking down the Z-axis
+                double perPixel = Math.tan(Math.toRadians(((PerspectiveCamera) camera).getFieldOfView() / 2)) / (height / 2);
+                corner = new Point3D((x - width / 2) * perPixel, (y - height / 2) * perPixel, 1).multiply(depth);
+            }
+            else { // The view of a ParallelCamera spans the subscene from the origin of the camera
+                corner = new Point3D(x, y, depth);
+            }
+            corners[i] = spatial.sceneToLocal(camera.localToScene(corner));
+        }
+
+        double[] bounds = {Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE,
+                Double.MAX_VALUE, -Double.MAX_VALUE}; // The min and max of q, r and s
+        boolean empty = true;
+        for (Point3D corner : corners) {
+            if (corner.getZ() >= TOP_Z && corner.getZ() <= BOTTOM_Z) {
+                include(bounds, corner);
+                empty = false;
+            }
+        }
+        for (int[] edge : EDGES) {
+            Point3D a = corners[edge[0]], b = corners[edge[1]];
+            for (double z : new double[] {TOP_Z, BOTTOM_Z}) {
+                double t = (z - a.getZ()) / (b.getZ() - a.getZ()); // NaN or infinite if the edge is parallel to the plane
+                if (t >= 0 && t <= 1) {
+                    include(bounds, a.add(b.subtract(a).multiply(t)));
+                    empty = false;
+                }
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        return new HexRange((int) Math.floor(bounds[0]) - MARGIN, (int) Math.ceil(bounds[1]) + MARGIN,
+                (int) Math.floor(bounds[2]) - MARGIN, (int) Math.ceil(bounds[3]) + MARGIN,
+                (int) Math.floor(bounds[4]) - MARGIN, (int) Math.ceil(bounds[5]) + MARGIN);
+    }
+
+    // Widens the bounds to the fractional axial coordinates of a point, inverting HexLayout.position
+    private static void include(double[] bounds, Point3D point) {
+        double r = (point.getY() - HexLayout.ORIGIN.getY()) / HexLayout.ADJACENCIES[2].getY();
+        double q = (point.getX() - HexLayout.ORIGIN.getX() - r * HexLayout.ADJACENCIES[2].getX()) / HexLayout.ADJACENCIES[1].getX();
+        double s = -q - r;
+        bounds[0] = Math.min(bounds[0], q); bounds[1] = Math.max(bounds[1], q);
+        bounds[2] = Math.min(bounds[2], r); bounds[3] = Math.max(bounds[3], r);
+        bounds[4] = Math.min(bounds[4], s); bounds[5] = Math.max(bounds[5], s);
+    }
+}
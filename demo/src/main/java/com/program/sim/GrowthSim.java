@@ -1,9 +1,16 @@
 package com.program.sim;
 
-import com.program.objects.tile.Tile;
+import com.program.World;
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import com.program.util.ActiveSet;
 import com.program.util.ArrayList;
+import com.program.util.IntArrayList;
+import com.program.util.Rng;
+import com.program.util.TileGraph;
 
-import static com.program.App.world;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class GrowthSim extends Sim {
 
@@ -25,20 +32,242 @@ public class GrowthSim extends Sim {
     final double rubbleSedimentationPercentChance = 10;
 
     // Toggles for the experimental features. Be aware, this may lead to impractical results.
-    public static boolean enableEvaporationAndDesertification = false;
-    public static boolean enablePrecipitation = false;
+    // Volatile since the front end toggles them while the simulation thread reads them
+    public static volatile boolean enableEvaporationAndDesertification = false;
+    public static volatile boolean enablePrecipitation = false;
 
     // Toggle for debug messages in console (e.g. status updates for mutations)
     final boolean enableDebug = false;
 
+    public enum Mode {
+        SEQUENTIAL, // Tiles change in place in the order they were occupied, so later tiles see the changes of earlier ones
+        BUFFERED, // Tiles read the previous generation and their transitions are applied together at the end of the tick
+        PARALLEL // Tiles are simulated one colour class at a time, with each class split into chunks across a ForkJoinPool
+    }
+    private Mode mode = Mode.SEQUENTIAL;
+
+    // Tiles are split into chunks of this size in parallel mode. It does not depend on the core count, so neither do the results.
+    private static final int CHUNK_SIZE = 512;
+    private static final int COLOURS = 3;
+
+    private final Worker worker = new Worker(); // Simulates the tiles in sequential and buffered mode
+
+    // The toggles as of the previous tick, to notice when they change
+    private boolean lastPrecipitation = enablePrecipitation;
+    private boolean lastEvaporationAndDesertification = enableEvaporationAndDesertification;
+
+    // State of a buffered tick
+    private final TileStore previous = new TileStore(); // The generation being read
+    private final Transitions transitions = new Transitions(); // The proposals for the next generation
+
+    // State of a parallel tick
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    private final IntArrayList colourClass = new IntArrayList(); // The awake tiles of the colour being simulated
+    private final ArrayList<Worker> chunkWorkers = new ArrayList<>(); // One per chunk, reused between ticks
+
     public GrowthSim(double updateRate) {
         super(updateRate);
     }
 
-    public void simulate() {
-        nextTile:
-        for (int i = 0; i < world.OCCUPIED_TILES.size(); i++) {
-            Tile thisTile = world.OCCUPIED_TILES.get(i);
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Sets the number of threads used in parallel mode. The results are the same for any number of threads.
+     * @param parallelism The number of threads, or 0 to share the common pool.
+     */
+    public void setParallelism(int parallelism) {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+        pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * Simulates the awake tiles of the world. A tile whose rules made no roll can only change again once it or one of its
+     * neighbours changes, which wakes it, so it is put to sleep until then. Tiles that rolled stay awake.
+     * Tiles are visited in the order they were occupied, and a tile woken by a change earlier in the same tick still gets its
+     * turn, so skipping the sleeping tiles gives the same results as visiting every tile.
+     */
+    public void simulate(World world) {
+        // The toggles change what the rules do, so any tile could have something to do again
+        if (enablePrecipitation != lastPrecipitation || enableEvaporationAndDesertification != lastEvaporationAndDesertification) {
+            world.ACTIVE_TILES.wakeAll();
+            lastPrecipitation = enablePrecipitation;
+            lastEvaporationAndDesertification = enableEvaporationAndDesertification;
+        }
+        if (mode == Mode.BUFFERED) {
+            simulateBuffered(world);
+        }
+        else if (mode == Mode.PARALLEL) {
+            simulateParallel(world);
+        }
+        else {
+            // Tiles are handled by id, reading their state straight from the columns of the store
+            ActiveSet active = world.ACTIVE_TILES;
+            for (int rank = active.nextRank(0); rank >= 0; rank = active.nextRank(rank + 1)) {
+                active.sleepRank(rank);
+                int id = world.OCCUPIED_TILES.get(rank);
+                boolean endsTick = worker.simulateTile(world, world.TILES, id);
+                if (worker.rollCount > 0) {
+                    active.wake(id);
+                }
+                if (endsTick) {
+                    break; // The tiles that did not get their turn are still awake
+                }
+            }
+        }
+        world.advanceGeneration();
+    }
+
+    /**
+     * Runs one tick in which every tile reads the previous generation, so that the outcome does not depend on the order of
+     * OCCUPIED_TILES. The proposed transitions are resolved by the policy of Transitions and applied together at the end.
+     */
+    private void simulateBuffered(World world) {
+        previous.copyFrom(world.TILES);
+        transitions.ensureCapacity(world.TILES.size());
+        ActiveSet active = world.ACTIVE_TILES;
+        for (int rank = active.nextRank(0); rank >= 0; rank = active.nextRank(rank + 1)) {
+            active.sleepRank(rank);
+            int id = world.OCCUPIED_TILES.get(rank);
+            worker.simulateTile(world, previous, id); // Expansions only end the turn of the expanding tile
+            if (worker.rollCount > 0) {
+                active.wake(id);
+            }
+        }
+        transitions.apply(world);
+    }
+
+    /**
+     * Runs one tick over the three colour classes of the hex grid in turn. A tile's colour is (q - r) mod 3, and no two
+     * neighbours share a colour, so the tiles of one class only read tiles that no other thread is writing. Each tile writes
+     * its own changes directly, while takeovers of neighbours are collected per chunk and applied once the whole class is done,
+     * with the lowest source id winning as in buffered mode.
+     */
+    private void simulateParallel(World world) {
+        transitions.ensureCapacity(world.TILES.size());
+        ActiveSet active = world.ACTIVE_TILES;
+        for (int colour = 0; colour < COLOURS; colour++) {
+            // Gather the class when its turn comes, so that it includes the tiles woken by the classes before it
+            colourClass.clear();
+            for (int rank = active.nextRank(0); rank >= 0; rank = active.nextRank(rank + 1)) {
+                int id = world.OCCUPIED_TILES.get(rank);
+                if (Math.floorMod(world.TILES.q(id) - world.TILES.r(id), COLOURS) == colour) {
+                    active.sleepRank(rank);
+                    colourClass.add(id);
+                }
+            }
+
+            int chunks = (colourClass.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            while (chunkWorkers.size() < chunks) {
+                chunkWorkers.add(new Worker());
+            }
+            pool.invoke(new ChunkTask(world, colourClass, 0, chunks));
+
+            // Merge the results in chunk order, so that the notifications do not depend on the scheduling either
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                Worker chunkWorker = chunkWorkers.get(chunk);
+                for (int i = 0; i < chunkWorker.changedTiles.size(); i++) {
+                    world.notifyTileChanged(chunkWorker.changedTiles.get(i), chunkWorker.oldStates.get(i));
+                }
+                for (int i = 0; i < chunkWorker.rolledTiles.size(); i++) {
+                    world.ACTIVE_TILES.wake(chunkWorker.rolledTiles.get(i));
+                }
+                for (int i = 0; i < chunkWorker.claimTargets.size(); i++) {
+                    transitions.propose(chunkWorker.claimSources.get(i), chunkWorker.claimTargets.get(i),
+                            TileType.VALUES[chunkWorker.claimTypes.get(i)], chunkWorker.claimStages.get(i));
+                }
+                chunkWorker.clear();
+            }
+            transitions.apply(world);
+        }
+    }
+
+    /**
+     * Simulates a range of chunks of one colour class, splitting it in half until a single chunk is left.
+     */
+    private class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final World world;
+        private final IntArrayList ids;
+        private final int fromChunk;
+        private final int toChunk;
+
+        ChunkTask(World world, IntArrayList ids, int fromChunk, int toChunk) {
+            this.world = world;
+            this.ids = ids;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (toChunk - fromChunk > 1) {
+                int middle = (fromChunk + toChunk) >>> 1;
+                invokeAll(new ChunkTask(world, ids, fromChunk, middle), new ChunkTask(world, ids, middle, toChunk));
+                return;
+            }
+            if (toChunk == fromChunk) {
+                return;
+            }
+            Worker chunkWorker = chunkWorkers.get(fromChunk);
+            int end = Math.min(ids.size(), (fromChunk + 1) * CHUNK_SIZE);
+            for (int i = fromChunk * CHUNK_SIZE; i < end; i++) {
+                chunkWorker.simulateTile(world, world.TILES, ids.get(i));
+                if (chunkWorker.rollCount > 0) {
+                    chunkWorker.rolledTiles.add(ids.get(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the rules to tiles, holding the scratch state of one thread so that several workers can simulate a tick at once.
+     */
+    private class Worker {
+
+        // Reused for every tile so that gathering adjacencies does not allocate
+        private final int[] adjacentIds = new int[TileGraph.MAX_GRID_DEGREE];
+        private int rollTile; // The tile being simulated, which also owns the rolls made for it
+        private int rollCount;
+
+        // Results of a parallel pass, merged in chunk order once every worker is done
+        private final IntArrayList changedTiles = new IntArrayList(); // Tiles that changed themselves, each listed once
+        private final IntArrayList oldStates = new IntArrayList(); // The packed state of each changed tile before its first change
+        private final IntArrayList rolledTiles = new IntArrayList(); // Tiles that rolled, so they have to stay awake
+        private final IntArrayList claimSources = new IntArrayList(); // Takeovers of neighbouring tiles, applied after the colour class
+        private final IntArrayList claimTargets = new IntArrayList();
+        private final IntArrayList claimTypes = new IntArrayList();
+        private final IntArrayList claimStages = new IntArrayList();
+
+        private void clear() {
+            changedTiles.clear();
+            oldStates.clear();
+            rolledTiles.clear();
+            claimSources.clear();
+            claimTargets.clear();
+            claimTypes.clear();
+            claimStages.clear();
+        }
+
+        /**
+         * Applies the rules of the tile's type to it and its neighbours.
+         * @param world The world the tile belongs to.
+         * @param tiles The state to read, which is the world's own store unless the tick is buffered.
+         * @param thisTile The id of the tile.
+         * @return True if a tile expanded or mutated in a way that ends the tick in sequential mode.
+         */
+        private boolean simulateTile(World world, TileStore tiles, int thisTile) {
+            rollTile = thisTile;
+            rollCount = 0;
             // These are declared here as they are used by most of the tile types to check what resources are near.
             boolean nextToGrass = false;
             boolean nextToForest = false;
@@ -46,58 +275,58 @@ public class GrowthSim extends Sim {
             boolean nextToSand = false;
 
             // Calculate all the adjacent tiles to this tile
-            ArrayList<Tile> adjacentTiles = world.ADJACENCY_GRAPH.returnAdjacentActiveTiles(thisTile);
+            int adjacentCount = world.ADJACENCY_GRAPH.collectAdjacentActiveIds(tiles.key(thisTile), adjacentIds);
 
-            if (thisTile.type.equals("grass")) {
+            if (tiles.type(thisTile) == TileType.GRASS) {
                 // Get the necessary adjacency information
                 int adjacentImmatureTiles = 0;
-                for (int j = 0; j < adjacentTiles.size(); j++) {
-                    Tile thisAdjacentTile = adjacentTiles.get(j);
-                    if (thisAdjacentTile.type.equals("river")) {
+                for (int j = 0; j < adjacentCount; j++) {
+                    int thisAdjacentTile = adjacentIds[j];
+                    if (tiles.type(thisAdjacentTile) == TileType.RIVER) {
                         nextToRiver = true;
                     }
-                    else if (!thisAdjacentTile.isFullyMatured()) {
+                    else if (!tiles.isMatured(thisAdjacentTile)) {
                         adjacentImmatureTiles++;
                     }
                 }
                 // If the grass tile is completely surrounded by immature tiles, simulate a precipitation effect.
                 // This is to stimulate growth in barren fields that would never grow otherwise as they are far from rivers
                 if (adjacentImmatureTiles == 6 && enablePrecipitation) {
-                    if (tryMutateTile(thisTile, "river", 1, grassPrecipitationPercentChance)) {
-                        break; // Break so the new river cannot do any more actions this tick (such as grow)
+                    if (tryMutateTile(world, tiles, thisTile, TileType.RIVER, 1, grassPrecipitationPercentChance)) {
+                        return true; // Break so the new river cannot do any more actions this tick (such as grow)
                     }
                 }
                 else if (nextToRiver) {
-                    tryGrowTile(thisTile, grassGrowthPercentChance);
+                    tryGrowTile(world, tiles, thisTile, grassGrowthPercentChance);
                 }
                 else { // If the grass was initially around water to the point of maturing, but that water evaporated, the grass will dry up as well turning into a desert
-                    if (thisTile.getStage() > 1 && enableEvaporationAndDesertification) {
-                        tryMutateTile(thisTile, "sand", 1, grassDesertificationPercentChange);
+                    if (tiles.stage(thisTile) > 1 && enableEvaporationAndDesertification) {
+                        tryMutateTile(world, tiles, thisTile, TileType.SAND, 1, grassDesertificationPercentChange);
                         // Don't need to break out of this block since it is the last thing executed
                     }
                 }
             }
 
-            else if (thisTile.type.equals("forest")) {
+            else if (tiles.type(thisTile) == TileType.FOREST) {
                 // Get the necessary adjacency information
                 int adjacentImmatureTiles = 0;
-                for (int j = 0; j < adjacentTiles.size(); j++) {
-                    Tile thisAdjacentTile = adjacentTiles.get(j);
-                    if (thisAdjacentTile.type.equals("river")) {
+                for (int j = 0; j < adjacentCount; j++) {
+                    int thisAdjacentTile = adjacentIds[j];
+                    if (tiles.type(thisAdjacentTile) == TileType.RIVER) {
                         nextToRiver = true;
                     }
-                    else if (!thisAdjacentTile.isFullyMatured()) {
+                    else if (!tiles.isMatured(thisAdjacentTile)) {
                         adjacentImmatureTiles++;
                     }
                 }
                 // Expand forests over grass if they are fully matured
-                if (thisTile.isFullyMatured()) { // Not worth checking if it's next to grass for expansion since grass is abundant
-                    for (int j = 0; j < adjacentTiles.size(); j++) {
-                        Tile thisAdjacentTile = adjacentTiles.get(j);
+                if (tiles.isMatured(thisTile)) { // Not worth checking if it's next to grass for expansion since grass is abundant
+                    for (int j = 0; j < adjacentCount; j++) {
+                        int thisAdjacentTile = adjacentIds[j];
                         // Don't expand over fully matured grass tiles, because then forest would be too invasive
-                        if (thisAdjacentTile.type.equals("grass") && !thisAdjacentTile.isFullyMatured()) {
-                            if (tryMutateTile(thisAdjacentTile, "forest", 2, forestExpansionPercentChance)) {
-                                break nextTile; // Break so the forest cannot do any more actions this tick (such as grow)
+                        if (tiles.type(thisAdjacentTile) == TileType.GRASS && !tiles.isMatured(thisAdjacentTile)) {
+                            if (tryMutateTile(world, tiles, thisAdjacentTile, TileType.FOREST, 2, forestExpansionPercentChance)) {
+                                return true; // Break so the forest cannot do any more actions this tick (such as grow)
                             }
                         }
                     }
@@ -105,91 +334,93 @@ public class GrowthSim extends Sim {
                 // If the grass tile is completely surrounded by immature tiles, simulate a precipitation effect.
                 // This is to stimulate growth in barren fields that would never grow otherwise as they are far from rivers
                 if (adjacentImmatureTiles == 6 && enablePrecipitation) {
-                    if (tryMutateTile(thisTile, "river", 1, forestPrecipitationPercentChance)) {
-                        break; // Break so the new river cannot do any more actions this tick (such as grow)
+                    if (tryMutateTile(world, tiles, thisTile, TileType.RIVER, 1, forestPrecipitationPercentChance)) {
+                        return true; // Break so the new river cannot do any more actions this tick (such as grow)
                     }
                 }
                 else if (nextToRiver) {
-                    tryGrowTile(thisTile, forestGrowthPercentChance);
+                    tryGrowTile(world, tiles, thisTile, forestGrowthPercentChance);
                 }
             }
 
-            else if (thisTile.type.equals("river")) {
+            else if (tiles.type(thisTile) == TileType.RIVER) {
                 // Get the necessary adjacency information
-                for (int j = 0; j < adjacentTiles.size(); j++) {
-                    Tile thisAdjacentTile = adjacentTiles.get(j);
-                    if (thisAdjacentTile.type.equals("sand")) {
+                for (int j = 0; j < adjacentCount; j++) {
+                    int thisAdjacentTile = adjacentIds[j];
+                    if (tiles.type(thisAdjacentTile) == TileType.SAND) {
                         nextToSand = true;
                     }
-                    else if (thisAdjacentTile.type.equals("river")) {
+                    else if (tiles.type(thisAdjacentTile) == TileType.RIVER) {
                         nextToRiver = true;
-                        if (thisAdjacentTile.getStage() >= 2) {
+                        if (tiles.stage(thisAdjacentTile) >= 2) {
                             // Set all river tiles to be facing the same way for their waves to line up
-                            thisTile.setRotation(thisAdjacentTile.getRotation());
+                            if (tiles.rotation(thisTile) != tiles.rotation(thisAdjacentTile)) {
+                                rotateTile(world, thisTile, tiles.rotation(thisAdjacentTile));
+                            }
                         }
                     }
                 }
                 // Expand rivers over sand tiles if they are next to another river and fully matured
-                if (thisTile.isFullyMatured() && nextToRiver && nextToSand) {
-                    for (int k = 0; k < adjacentTiles.size(); k++) {
-                        Tile thisAdjacentTile = adjacentTiles.get(k);
-                        if (thisAdjacentTile.type.equals("sand")) {
-                            if (tryMutateTile(thisAdjacentTile, "river", 1, riverInundationPercentChance)) {
-                                break nextTile; // Break so the new river cannot do any more actions this tick (such as grow)
+                if (tiles.isMatured(thisTile) && nextToRiver && nextToSand) {
+                    for (int k = 0; k < adjacentCount; k++) {
+                        int thisAdjacentTile = adjacentIds[k];
+                        if (tiles.type(thisAdjacentTile) == TileType.SAND) {
+                            if (tryMutateTile(world, tiles, thisAdjacentTile, TileType.RIVER, 1, riverInundationPercentChance)) {
+                                return true; // Break so the new river cannot do any more actions this tick (such as grow)
                             }
                         }
                     }
                 }
                 else if (nextToRiver) {
-                    tryGrowTile(thisTile, riverGrowthPercentChance);
+                    tryGrowTile(world, tiles, thisTile, riverGrowthPercentChance);
                 }
                 else { // If the river is on its own, it's treated as a small pond and dries up
                     // Check if the river is completely surrounded by tiles. This is so we don't evaporate rivers that have just spawned in
                     // Also check if the river is next to a sand tile. This is so we don't evaporate rivers that are the result of precipitation.
-                    if (adjacentTiles.size() == 6 && nextToSand && enableEvaporationAndDesertification) {
-                        tryMutateTile(thisTile, "sand", 1, riverEvaporationPercentChance);
+                    if (adjacentCount == 6 && nextToSand && enableEvaporationAndDesertification) {
+                        tryMutateTile(world, tiles, thisTile, TileType.SAND, 1, riverEvaporationPercentChance);
                     }
                 }
             }
 
-            else if (thisTile.type.equals("village")) {
+            else if (tiles.type(thisTile) == TileType.VILLAGE) {
                 // Get the necessary adjacency information
                 int adjacentGrassTiles = 0;
                 int adjacentForestTiles = 0;
-                for (int j = 0; j < adjacentTiles.size(); j++) {
-                    Tile thisAdjacentTile = adjacentTiles.get(j);
-                    if (thisAdjacentTile.type.equals("grass")) {
+                for (int j = 0; j < adjacentCount; j++) {
+                    int thisAdjacentTile = adjacentIds[j];
+                    if (tiles.type(thisAdjacentTile) == TileType.GRASS) {
                         nextToGrass = true;
                         adjacentGrassTiles++;
                     }
-                    else if (thisAdjacentTile.type.equals("forest")) {
+                    else if (tiles.type(thisAdjacentTile) == TileType.FOREST) {
                         nextToForest = true;
                         adjacentForestTiles++;
                     }
-                    else if (thisAdjacentTile.type.equals("river")) {
+                    else if (tiles.type(thisAdjacentTile) == TileType.RIVER) {
                         nextToRiver = true;
                     }
                 }
                 // Expand villages over grass or forest tiles if they are fully matured
-                if (thisTile.isFullyMatured() && (nextToGrass || nextToForest) && nextToRiver) {
-                    for (int j = 0; j < adjacentTiles.size(); j++) {
-                        Tile thisAdjacentTile = adjacentTiles.get(j);
+                if (tiles.isMatured(thisTile) && (nextToGrass || nextToForest) && nextToRiver) {
+                    for (int j = 0; j < adjacentCount; j++) {
+                        int thisAdjacentTile = adjacentIds[j];
                         // Take over grass and forest tiles only, and don't take over tiles that were previously village tiles and became abandoned
 
                         // Before expanding over grass, we check if the tile is also next to a forest. This will ensure that the village
                         // can still survive after the expansion as it does not become deprived of resources. The village can also
                         // be next to more than one grass tile, in which case we can also go ahead with the expansion.
-                        if (thisAdjacentTile.type.equals("grass") && !thisAdjacentTile.isAbandoned() && (nextToForest || adjacentGrassTiles > 1)) {
-                            if (tryMutateTile(thisAdjacentTile, "village", 2, villageExpansionPercentChance)) {
-                                break nextTile; // Break so the village cannot do any more actions this tick (such as grow)
+                        if (tiles.type(thisAdjacentTile) == TileType.GRASS && !tiles.isAbandoned(thisAdjacentTile) && (nextToForest || adjacentGrassTiles > 1)) {
+                            if (tryMutateTile(world, tiles, thisAdjacentTile, TileType.VILLAGE, 2, villageExpansionPercentChance)) {
+                                return true; // Break so the village cannot do any more actions this tick (such as grow)
                             }
                         }
                         // Before expanding over forest, we check if the tile is also next to a grass. This will ensure that the village
                         // can still survive after the expansion as it does not become deprived of resources. The village can also
                         // be next to more than one forest tile, in which case we can also go ahead with the expansion.
-                        else if (thisAdjacentTile.type.equals("forest") && !thisAdjacentTile.isAbandoned() && (nextToGrass || adjacentForestTiles > 1)) {
-                            if (tryMutateTile(thisAdjacentTile, "village", 2, villageExpansionPercentChance)) {
-                                break nextTile; // Break so the village cannot do any more actions this tick (such as grow)
+                        else if (tiles.type(thisAdjacentTile) == TileType.FOREST && !tiles.isAbandoned(thisAdjacentTile) && (nextToGrass || adjacentForestTiles > 1)) {
+                            if (tryMutateTile(world, tiles, thisAdjacentTile, TileType.VILLAGE, 2, villageExpansionPercentChance)) {
+                                return true; // Break so the village cannot do any more actions this tick (such as grow)
                             }
                         }
                         // These checks will not prevent a village expanding too far to a tile that will not have the available resources
@@ -198,70 +429,135 @@ public class GrowthSim extends Sim {
                     }
                 }
                 else if ((nextToGrass || nextToForest) && nextToRiver) { // Grow villages if they are next to a river and a grass or forest tile
-                    tryGrowTile(thisTile, villageGrowthPercentChance);
+                    tryGrowTile(world, tiles, thisTile, villageGrowthPercentChance);
                 }
                 else { // If the village is not near enough resources, it will die off (can't expand or grow)
                     // Check if the village is completely surrounded by tiles. This is so we don't abandon villages that have just spawned in
                     // If the TerrainSim is paused you may notice villages existing on the edges that are not growing nor abandoning, this is because of the above mechanic
-                    if (adjacentTiles.size() == 6) {
-                        if (tryMutateTile(thisTile, "rubble", 1, villageAbandonmentPercentChance)) {
-                            thisTile.markAbandoned();
+                    if (adjacentCount == 6) {
+                        if (tryMutateTile(world, tiles, thisTile, TileType.RUBBLE, 1, villageAbandonmentPercentChance)) {
+                            markAbandoned(world, thisTile);
                         }
                     }
                 }
             }
 
-            else if (thisTile.type.equals("rubble")) {
-                tryGrowTile(thisTile, rubbleSedimentationPercentChance); // "Sediment" the rubble tile
+            else if (tiles.type(thisTile) == TileType.RUBBLE) {
+                tryGrowTile(world, tiles, thisTile, rubbleSedimentationPercentChance); // "Sediment" the rubble tile
                 // When the sediment fully deposits, revert the tile back to its first type (either grass or forest)
-                if (thisTile.isFullyMatured()) {
-                    if (thisTile.firstType.equals("village")) { // If it was always a village, revert it to a grass tile
-                        tryMutateTile(thisTile, "grass", 1, grassGrowthPercentChance);
+                if (tiles.isMatured(thisTile)) {
+                    if (tiles.firstType(thisTile) == TileType.VILLAGE) { // If it was always a village, revert it to a grass tile
+                        tryMutateTile(world, tiles, thisTile, TileType.GRASS, 1, grassGrowthPercentChance);
                     }
                     else {
-                        tryMutateTile(thisTile, thisTile.firstType, 1, rubbleSedimentationPercentChance);
+                        tryMutateTile(world, tiles, thisTile, tiles.firstType(thisTile), 1, rubbleSedimentationPercentChance);
                     }
                 }
             }
+            return false;
         }
-    }
 
-    /**
-     * @param tile The tile that is attempting to grow.
-     * @return Returns true if the growth occurred, otherwise returns false.
-     */
-    private boolean tryGrowTile(Tile tile, double chance) {
-        if (!tile.isFullyMatured() && rollPercentChance(chance)) {
-            tile.mature();
-            return true;
+        /**
+         * @param world The world the tile belongs to, which is notified of the change.
+         * @param tiles The state to read.
+         * @param tile The id of the tile that is attempting to grow.
+         * @return Returns true if the growth occurred, otherwise returns false.
+         */
+        private boolean tryGrowTile(World world, TileStore tiles, int tile, double chance) {
+            if (!tiles.isMatured(tile) && rollPercentChance(world, chance)) {
+                changeTile(world, tile, tiles.type(tile), tiles.stage(tile) + 1);
+                return true;
+            }
+            return false;
         }
-        return false;
-    }
 
-    /**
-     * @param tile The tile that is attempting to mutate.
-     * @param type The type of the new tile.
-     * @param stage The stage the new tile will start at.
-     * @param chance The percent chance the mutation will occur.
-     * @return Returns true if the mutation occurred, otherwise returns false.
-     */
-    private boolean tryMutateTile(Tile tile, String type, int stage, double chance) {
-        if (rollPercentChance(chance)) {
-            if (enableDebug) {
-                System.out.println(chance + "% chance rolled for " + tile);
-                System.out.println(tile + " is now " + type + ".");
+        /**
+         * @param world The world the tile belongs to, which is notified of the change.
+         * @param tiles The state to read.
+         * @param tile The id of the tile that is attempting to mutate.
+         * @param type The type of the new tile.
+         * @param stage The stage the new tile will start at.
+         * @param chance The percent chance the mutation will occur.
+         * @return Returns true if the mutation occurred, otherwise returns false.
+         */
+        private boolean tryMutateTile(World world, TileStore tiles, int tile, TileType type, int stage, double chance) {
+            if (rollPercentChance(world, chance)) {
+                if (enableDebug) {
+                    System.out.println(chance + "% chance rolled for " + world.TILES.tile(tile));
+                    System.out.println(world.TILES.tile(tile) + " is now " + type + ".");
+                }
+                changeTile(world, tile, type, stage);
+                return true;
             }
-            tile.type = type;
-            tile.setStageAndRerender(stage); // Set the new grass tile to start in the first stage
-            return true;
+            return false;
         }
-        return false;
-    }
 
-    private boolean rollPercentChance(double chance) {
-        if (chance >= 0 && chance <= 100) {
-            return Math.random() < (chance / 100.0);
+        /**
+         * Sets the type and stage of a tile, or defers the change when the mode does not allow it to be written yet.
+         */
+        private void changeTile(World world, int tile, TileType type, int stage) {
+            switch (mode) {
+                case BUFFERED:
+                    transitions.propose(rollTile, tile, type, stage); // The tile being simulated is the source of the proposal
+                    break;
+                case PARALLEL:
+                    if (tile != rollTile) { // Neighbours belong to another colour class, so takeovers wait until the class is done
+                        claimSources.add(rollTile);
+                        claimTargets.add(tile);
+                        claimTypes.add(type.ordinal());
+                        claimStages.add(stage);
+                        break;
+                    }
+                    recordChange(world, tile);
+                    world.TILES.setType(tile, type);
+                    world.TILES.setStage(tile, stage);
+                    break;
+                default:
+                    world.changeTile(tile, type, stage);
+            }
+        }
+
+        /**
+         * Remembers the state of a tile before it first changes in a parallel pass, so that observers can be notified of the
+         * change on the calling thread afterwards. A tile's changes all happen during its own turn, so they are consecutive.
+         */
+        private void recordChange(World world, int tile) {
+            int last = changedTiles.size() - 1;
+            if (last < 0 || changedTiles.get(last) != tile) {
+                changedTiles.add(tile);
+                oldStates.add(world.TILES.state(tile));
+            }
+        }
+
+        private void rotateTile(World world, int tile, int rotation) {
+            if (mode == Mode.PARALLEL) {
+                recordChange(world, tile);
+                world.TILES.setRotation(tile, rotation); // Only ever changes the tile itself, so it is never deferred
+            }
+            else {
+                world.rotateTile(tile, rotation);
+            }
+        }
+
+        private void markAbandoned(World world, int tile) {
+            if (mode == Mode.BUFFERED) {
+                transitions.proposeAbandoned(tile);
+            }
+            else if (mode == Mode.PARALLEL) {
+                recordChange(world, tile);
+                world.TILES.markAbandoned(tile);
+            }
+            else {
+                world.markAbandoned(tile);
+            }
+        }
+
+        private boolean rollPercentChance(World world, double chance) {
+            if (chance >= 0 && chance <= 100) {
+                // Drawn for the generation, tile and roll, so that every tile draws the same numbers in any order and on any thread
+                return world.RNG.nextDouble(world.getGeneration(), rollTile, Rng.Purpose.GROWTH_ROLL, rollCount++) < (chance / 100.0);
+            }
+            return false;
         }
-        return false;
     }
 }
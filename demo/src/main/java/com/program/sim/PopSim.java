@@ -1,33 +1,75 @@
 package com.program.sim;
 
-import com.program.objects.tile.Tile;
+import com.program.World;
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
 
 import java.util.Arrays;
 
-import static com.program.App.world;
-
+/**
+ * The world keeps its populations and yields up to date as tiles change, so reading them costs nothing.
+ * This Sim periodically recounts them from scratch to check that the running totals have not drifted from the tiles.
+ */
 public class PopSim extends Sim {
 
+    // Recount every this many ticks, since a recount has to visit every occupied tile
+    public static final int CHECK_INTERVAL = 16;
+
+    private int ticks = 0;
+
     public PopSim(double updateRate) {
         super(updateRate);
     }
 
-    public void simulate() {
-        Arrays.fill(world.POPULATIONS, 0.0); // Reset the population counters
-        for (int i = 0; i < world.OCCUPIED_TILES.size(); i++) {
-            Tile thisTile = world.OCCUPIED_TILES.get(i);
-            // Sand and rubble tiles do not have a population
-            if (!thisTile.type.equals("sand") && !thisTile.type.equals("rubble")) {
-                world.POPULATIONS[Arrays.asList(world.TILE_TYPES).indexOf(thisTile.type)] += thisTile.getPopulation();
-            }
+    public void simulate(World world) {
+        if (++ticks % CHECK_INTERVAL == 0) {
+            check(world);
         }
+    }
 
-        Arrays.fill(world.YIELDS, 0.0); // Reset the yield counters
+    /**
+     * Recounts the populations and yields of the world and compares them with its running totals.
+     * A mismatch fails an assertion when assertions are enabled, and is otherwise repaired with the recounted values.
+     * @param world The world to check.
+     * @return True if the running totals matched the recount.
+     */
+    public boolean check(World world) {
+        double[] populations = new double[world.POPULATIONS.length];
+        double[] yields = new double[world.YIELDS.length];
+        recount(world, populations, yields);
+        boolean consistent = Arrays.equals(populations, world.POPULATIONS) && Arrays.equals(yields, world.YIELDS);
+        assert consistent : "Aggregates drifted: populations " + Arrays.toString(world.POPULATIONS) + " should be "
+                + Arrays.toString(populations) + ", yields " + Arrays.toString(world.YIELDS) + " should be " + Arrays.toString(yields);
+        if (!consistent) {
+            System.arraycopy(populations, 0, world.POPULATIONS, 0, populations.length);
+            System.arraycopy(yields, 0, world.YIELDS, 0, yields.length);
+        }
+        return consistent;
+    }
+
+    /**
+     * Counts the populations and yields of every occupied tile from scratch.
+     * @param world The world to count.
+     * @param populations Overwritten with the population of each type.
+     * @param yields Overwritten with the yield of each type.
+     */
+    public static void recount(World world, double[] populations, double[] yields) {
+        Arrays.fill(populations, 0.0); // Reset the population counters
+        Arrays.fill(yields, 0.0); // Reset the yield counters
+
+        // Walk the columns of the store directly, since the type ordinal doubles as the index into the counters
+        TileStore tiles = world.TILES;
+        byte[] types = tiles.types();
         for (int i = 0; i < world.OCCUPIED_TILES.size(); i++) {
-            Tile thisTile = world.OCCUPIED_TILES.get(i);
+            int id = world.OCCUPIED_TILES.get(i);
+            TileType type = TileType.VALUES[types[id]];
+            // Sand and rubble tiles do not have a population
+            if (type.hasPopulation()) {
+                populations[type.ordinal()] += tiles.population(id);
+            }
             // Village tiles do not yield anything
-            if (!thisTile.type.equals("village") && !thisTile.type.equals("sand") && !thisTile.type.equals("rubble")) {
-                world.YIELDS[Arrays.asList(world.TILE_TYPES).indexOf(thisTile.type)] += thisTile.getYield();
+            if (type.hasYield()) {
+                yields[type.ordinal()] += tiles.yield(id);
             }
         }
     }
@@ -1,57 +1,99 @@
 package com.program.sim;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
+import com.program.World;
 
 public abstract class Sim {
 
     protected final double UPDATE_RATE; // The initial update rate cannot be changed, only the speed multiplier
-    protected final Timeline TIMELINE;
     protected final double MIN_RATE_MULTIPLIER;
     protected final double MAX_RATE_MULTIPLIER;
 
+    // Volatile since a scheduler may read them on its own thread, see TickScheduler
+    private volatile double rateMultiplier = 1.0;
+    private volatile boolean paused = true;
+    private SimClock clock = null; // Only set when the Sim is driven by a clock of its own
+    private final SimStats stats = new SimStats(); // Recorded by Engine, which times every tick
+
     public Sim(double updateRate) {
         UPDATE_RATE = updateRate;
-        TIMELINE = new Timeline(new KeyFrame(Duration.seconds(updateRate), (t) -> simulate()));
-        TIMELINE.setCycleCount(Timeline.INDEFINITE);
 
-        // Timeline's rate property is not a KeyFrame (in seconds), but a fractional multiplier
+        // The rate multiplier is not a duration (in seconds), but a fractional multiplier
         // The exponent represents how far the speed can multiply in one direction
         MIN_RATE_MULTIPLIER = 1.0 / Math.pow(2, 3);
         MAX_RATE_MULTIPLIER = Math.pow(2, 3);
     }
 
-    public abstract void simulate();
+    /**
+     * Advances the simulation by one tick.
+     * @param world The world to simulate.
+     */
+    public abstract void simulate(World world);
+
+    /**
+     * Attaches a clock that calls simulate in real time, following the play, pause and speed controls of this Sim.
+     * @param clock The clock driving this Sim.
+     */
+    public void setClock(SimClock clock) {
+        this.clock = clock;
+        clock.setRate(rateMultiplier);
+        if (!paused) {
+            clock.play();
+        }
+    }
 
     public void play() {
-        TIMELINE.play();
+        paused = false;
+        if (clock != null)
+            clock.play();
     }
 
     public void pause() {
-        TIMELINE.pause();
+        paused = true;
+        if (clock != null)
+            clock.pause();
     }
 
     public void halveSpeed() {
-        if (TIMELINE.getRate() > MIN_RATE_MULTIPLIER)
-            TIMELINE.setRate(TIMELINE.getRate() / 2);
+        if (rateMultiplier > MIN_RATE_MULTIPLIER)
+            setRateMultiplier(rateMultiplier / 2);
     }
 
     public void doubleSpeed() {
-        if (TIMELINE.getRate() < MAX_RATE_MULTIPLIER)
-            TIMELINE.setRate(TIMELINE.getRate() * 2);
+        if (rateMultiplier < MAX_RATE_MULTIPLIER)
+            setRateMultiplier(rateMultiplier * 2);
     }
 
     public boolean isPaused() {
-        return TIMELINE.getStatus().equals(Animation.Status.PAUSED);
+        return paused;
     }
 
     public double getRate() {
-        return UPDATE_RATE / TIMELINE.getRate();
+        return UPDATE_RATE / rateMultiplier;
     }
 
     public double getUpdateRate() {
         return UPDATE_RATE;
     }
+
+    /**
+     * @return How many times faster than its update rate the Sim runs, as set by halveSpeed and doubleSpeed.
+     */
+    public double getRateMultiplier() {
+        return rateMultiplier;
+    }
+
+    public SimStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @param rateMultiplier How many times faster than its update rate the Sim should run, e.g. as saved in a snapshot. It is
+     * kept within the range halveSpeed and doubleSpeed can reach.
+     */
+    public void setRateMultiplier(double rateMultiplier) {
+        rateMultiplier = Math.max(MIN_RATE_MULTIPLIER, Math.min(MAX_RATE_MULTIPLIER, rateMultiplier));
+        this.rateMultiplier = rateMultiplier;
+        if (clock != null)
+            clock.setRate(rateMultiplier);
+    }
 }
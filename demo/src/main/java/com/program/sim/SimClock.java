@@ -0,0 +1,17 @@
+package com.program.sim;
+
+/**
+ * Drives a Sim in real time. The engine itself has no clock, so a front end either attaches one (e.g. a JavaFX Timeline) to
+ * each Sim, or runs every Sim off a single TickScheduler, which needs no clocks.
+ */
+public interface SimClock {
+
+    void play();
+
+    void pause();
+
+    /**
+     * @param rate The speed multiplier, where 2.0 ticks twice as often as the Sim's update rate.
+     */
+    void setRate(double rate);
+}
@@ -0,0 +1,40 @@
+package com.program.sim;
+
+import com.program.util.Histogram;
+import com.program.util.RateMeter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each tick of a Sim takes, without allocating or locking, see Engine.simulate.
+ */
+public class SimStats implements SimStatsMBean {
+
+    private final Histogram durations = new Histogram(); // In nanos
+    private final LongAdder ticks = new LongAdder();
+    private final RateMeter rate = new RateMeter();
+
+    /**
+     * @param nanos The duration of a tick.
+     */
+    public void record(long nanos) {
+        durations.record(nanos);
+        ticks.increment();
+    }
+
+    public long getTicks() { return ticks.sum(); }
+
+    public double getTicksPerSecond() { return rate.perSecond(ticks.sum()); }
+
+    public double getMeanTickMicros() { return durations.mean() / 1e3; }
+
+    public double getMedianTickMicros() { return durations.percentile(0.5) / 1e3; }
+
+    public double getP99TickMicros() { return durations.percentile(0.99) / 1e3; }
+
+    public double getMaxTickMicros() { return durations.max() / 1e3; }
+
+    public void reset() {
+        durations.reset();
+    }
+}
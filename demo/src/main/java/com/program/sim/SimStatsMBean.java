@@ -0,0 +1,24 @@
+package com.program.sim;
+
+/**
+ * What a tick of a Sim costs, as seen over JMX. Durations are in microseconds.
+ */
+public interface SimStatsMBean {
+
+    long getTicks();
+
+    double getTicksPerSecond();
+
+    double getMeanTickMicros();
+
+    double getMedianTickMicros();
+
+    double getP99TickMicros();
+
+    double getMaxTickMicros();
+
+    /**
+     * Forgets the durations recorded so far, e.g. after changing a feature, but not the number of ticks.
+     */
+    void reset();
+}
@@ -0,0 +1,98 @@
+package com.program.sim;
+
+import com.program.World;
+import com.program.objects.tile.TileType;
+import com.program.util.IntArrayList;
+
+import java.util.Arrays;
+
+/**
+ * Collects the transitions proposed during a buffered tick, so that they can all be applied to the next generation at once.
+ * <p>
+ * Each tile can only take one transition per tick. When several are proposed for the same tile, the conflict is resolved by:
+ * <ol>
+ *     <li>A takeover by a neighbouring tile (e.g. a forest expanding over grass) wins over the tile's own transition.</li>
+ *     <li>Between takeovers, the one proposed by the tile with the lowest id wins.</li>
+ *     <li>A tile's own later proposal replaces its earlier one.</li>
+ * </ol>
+ * None of these depend on the order the tiles were visited in.
+ */
+class Transitions {
+
+    private static final int NONE = -1;
+
+    private int[] sources = new int[0]; // Id of the tile that proposed the winning transition, or NONE
+    private byte[] types = new byte[0];
+    private byte[] stages = new byte[0];
+    private boolean[] abandons = new boolean[0];
+    private final IntArrayList targets = new IntArrayList(); // Ids of the tiles with a transition, so they can be applied and cleared
+
+    /**
+     * Makes room for the transitions of every tile in the store.
+     */
+    void ensureCapacity(int tileCount) {
+        if (sources.length < tileCount) {
+            int capacity = Math.max(tileCount, sources.length * 2);
+            int oldCapacity = sources.length;
+            sources = Arrays.copyOf(sources, capacity);
+            Arrays.fill(sources, oldCapacity, capacity, NONE);
+            types = Arrays.copyOf(types, capacity);
+            stages = Arrays.copyOf(stages, capacity);
+            abandons = Arrays.copyOf(abandons, capacity);
+        }
+    }
+
+    /**
+     * Proposes a new type and stage for a tile.
+     * @param source The id of the tile proposing the transition.
+     * @param target The id of the tile that would change, which is the same as the source for a tile's own transition.
+     * @param type The type the target would become.
+     * @param stage The stage the target would be set to.
+     */
+    void propose(int source, int target, TileType type, int stage) {
+        int current = sources[target];
+        if (current == NONE) {
+            targets.add(target);
+        }
+        else if (!wins(source, current, target)) {
+            return;
+        }
+        sources[target] = source;
+        types[target] = (byte) type.ordinal();
+        stages[target] = (byte) stage;
+        abandons[target] = false;
+    }
+
+    /**
+     * Marks a tile as abandoned, as long as the tile's own transition is still the winning one.
+     */
+    void proposeAbandoned(int tile) {
+        if (sources[tile] == tile) {
+            abandons[tile] = true;
+        }
+    }
+
+    /**
+     * Applies every winning transition to the tiles of the world and clears the buffer for the next tick.
+     */
+    void apply(World world) {
+        for (int i = 0; i < targets.size(); i++) {
+            int tile = targets.get(i);
+            sources[tile] = NONE;
+            world.changeTile(tile, TileType.VALUES[types[tile]], stages[tile]);
+            if (abandons[tile]) {
+                world.markAbandoned(tile);
+            }
+        }
+        targets.clear();
+    }
+
+    private static boolean wins(int source, int current, int target) {
+        boolean takeover = source != target;
+        boolean currentTakeover = current != target;
+        if (takeover != currentTakeover) {
+            return takeover; // Takeovers beat a tile's own transition
+        }
+        return takeover ? source < current : true;
+    }
+}
@@ -0,0 +1,109 @@
+package com.program.util;
+
+import java.util.Arrays;
+
+/**
+ * The occupied tiles that are awake, i.e. that a simulation still has to look at. Tiles are kept as one bit each, indexed by
+ * the order they were occupied in, so that the awake tiles can be listed in that order without sorting.
+ */
+public class ActiveSet {
+
+    private long[] words = new long[1]; // One bit per occupied tile, by occupation order
+    private int[] ranks = new int[0]; // The occupation order + 1 of each tile id, or 0 if the tile is not occupied
+    private int occupied = 0;
+    private int size = 0;
+
+    /**
+     * @return The number of awake tiles.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a newly occupied tile, which starts awake.
+     * @param id The id of the tile.
+     * @param rank The position of the tile in the order tiles were occupied in.
+     */
+    public void add(int id, int rank) {
+        if (id >= ranks.length) {
+            ranks = Arrays.copyOf(ranks, Math.max(id + 1, ranks.length * 2));
+        }
+        ranks[id] = rank + 1;
+        occupied = Math.max(occupied, rank + 1);
+        int wordCount = (occupied + 63) >> 6;
+        if (wordCount > words.length) {
+            words = Arrays.copyOf(words, Math.max(wordCount, words.length * 2));
+        }
+        wake(id);
+    }
+
+    /**
+     * Wakes a tile. Tiles that are not occupied are ignored.
+     * @param id The id of the tile.
+     */
+    public void wake(int id) {
+        if (id >= ranks.length || ranks[id] == 0) {
+            return;
+        }
+        int rank = ranks[id] - 1;
+        long bit = 1L << rank;
+        if ((words[rank >> 6] & bit) == 0) {
+            words[rank >> 6] |= bit;
+            size++;
+        }
+    }
+
+    public boolean isAwake(int id) {
+        if (id >= ranks.length || ranks[id] == 0) {
+            return false;
+        }
+        int rank = ranks[id] - 1;
+        return (words[rank >> 6] & 1L << rank) != 0;
+    }
+
+    /**
+     * Wakes every occupied tile, e.g. when a rule changed and any tile might be affected.
+     */
+    public void wakeAll() {
+        int fullWords = occupied >> 6;
+        Arrays.fill(words, 0, fullWords, -1L);
+        if ((occupied & 63) != 0) {
+            words[fullWords] = (1L << occupied) - 1; // The shift only uses the lower six bits
+        }
+        size = occupied;
+    }
+
+    /**
+     * Finds the next awake tile in the order tiles were occupied in. Tiles woken while iterating are found as long as they
+     * come after the current position.
+     * @param fromRank The position in the occupation order to start looking from.
+     * @return The position of the next awake tile, or -1 if there is none.
+     */
+    public int nextRank(int fromRank) {
+        int index = fromRank >> 6;
+        if (fromRank >= occupied) {
+            return -1;
+        }
+        long word = words[index] & (-1L << fromRank); // The shift only uses the lower six bits
+        while (word == 0) {
+            if (++index >= words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Puts a tile to sleep.
+     * @param rank The position of the tile in the order tiles were occupied in.
+     */
+    public void sleepRank(int rank) {
+        long bit = 1L << rank;
+        if ((words[rank >> 6] & bit) != 0) {
+            words[rank >> 6] &= ~bit;
+            size--;
+        }
+    }
+}
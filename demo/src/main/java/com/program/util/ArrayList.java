@@ -1,106 +1,137 @@
 package com.program.util;
 
-public class ArrayList<T> {
-    
-    protected T[] list;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+public class ArrayList<T> implements Iterable<T> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    protected T[] list; // Backing array, of which only the first size elements are in use
+    protected int size = 0;
 
     public ArrayList() {
-        list = (T[]) new Object[0];
+        list = (T[]) new Object[DEFAULT_CAPACITY];
     }
 
+    /**
+     * @param size The initial size of the list, which starts out filled with nulls that can be replaced with set.
+     */
     public ArrayList(int size) {
-        list = (T[]) new Object[size];
+        list = (T[]) new Object[Math.max(size, DEFAULT_CAPACITY)];
+        this.size = size;
     }
-    
-    public T[] getList() { return list; }
+
+    /**
+     * @return A copy of the elements in the list, trimmed to its size.
+     */
+    public T[] getList() { return Arrays.copyOf(list, size); }
 
     public String toString() {
         StringBuilder str = new StringBuilder("{");
-        if (list.length > 0) {
-            for (int i = 0; i < list.length; i++) {
-                str.append(list[i]).append(i < list.length - 1 ? ", " : "");
-            }
+        for (int i = 0; i < size; i++) {
+            str.append(list[i]).append(i < size - 1 ? ", " : "");
         }
         str.append("}");
         return str.toString();
     }
 
     public T get(int element) {
-        if (element > list.length - 1 || element < 0)
+        if (element > size - 1 || element < 0)
             return null;
         else
             return list[element];
     }
 
     public void set(int element, T thing) {
-        if (element < list.length && element >= 0) {
+        if (element < size && element >= 0) {
             list[element] = thing;
         }
     }
 
     public int size() {
-        return list.length;
+        return size;
     }
 
     public boolean isEmpty() {
-        return (list.length == 0);
+        return (size == 0);
     }
 
     public int indexOf(T thing) {
-        for (int i = 0; i < list.length; i++) {
-            if (list[i].equals(thing)) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(list[i], thing)) {
                 return i;
             }
         }
         return -1;
     }
 
+    /**
+     * Appends an element, doubling the backing array when it is full so that a run of adds costs amortised O(1) each.
+     */
     public void add(T thing) {
-        mutateArray(list.length + 1);
-        list[list.length - 1] = thing;
+        if (size == list.length) {
+            ensureCapacity(size + 1);
+        }
+        list[size++] = thing;
+    }
+
+    /**
+     * Removes the element at an index and shifts the following elements down by one.
+     * @return The removed element, or null if the index is out of range.
+     */
+    public T removeAt(int element) {
+        if (element > size - 1 || element < 0)
+            return null;
+        T removed = list[element];
+        System.arraycopy(list, element + 1, list, element, size - element - 1);
+        list[--size] = null;
+        return removed;
     }
 
     public void removeFirst(T thing) {
-        for (int i = 0; i < list.length; i++) {
+        for (int i = 0; i < size; i++) {
             if (list[i] == thing) {
-                list[i] = null;
-                mutateArray(list.length - 1);
+                removeAt(i);
                 break;
             }
         }
     }
 
     public void removeAll(T thing) {
-        int instances = 0;
-        for (int i = 0; i < list.length; i++) {
-            if (list[i] == thing) {
-                list[i] = null;
-                instances++;
-            }
+        int pointer = 0;
+        for (int i = 0; i < size; i++) {
+            if (list[i] != thing) // Shift every kept element down over the removed ones in a single pass
+                list[pointer++] = list[i];
         }
-        if (instances > 0) // if the thing was found at least once
-            mutateArray(list.length - instances);
+        Arrays.fill(list, pointer, size, null);
+        size = pointer;
     }
 
     public void clear() {
-        for (int i = 0; i < list.length; i++) {
-            set(i, null);
-            mutateArray(0);
-        }
+        Arrays.fill(list, 0, size, null); // Let go of the elements while keeping the capacity for reuse
+        size = 0;
     }
 
-    protected void mutateArray(int newSize) {
-        T[] newList = (T[]) new Object[newSize];
-        int pointer = 0;
-        for (T t : list) {
-            if (t != null) // forgets all the previous null entries, which shifts elements when removing
-                newList[pointer++] = t;
+    /**
+     * Grows the backing array to at least the given capacity, at least doubling it.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > list.length) {
+            list = Arrays.copyOf(list, Math.max(capacity, list.length * 2));
         }
-        list = newList;
     }
 
+    /**
+     * @return True if both lists have the same size and hold the same elements, compared by identity, in the same order.
+     */
     public boolean equals(ArrayList<T> check) {
-        for (int i = 0; i < check.size(); i++) {
+        if (check.size() != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
             if (check.get(i) != this.get(i))
                 return false;
         }
@@ -108,10 +139,27 @@ public class ArrayList<T> {
     }
 
     public ArrayList<T> clone() {
-        ArrayList<T> clone = new ArrayList<>();
-        for (int i = 0; i < list.length; i++) {
-            clone.add(this.get(i));
-        }
+        ArrayList<T> clone = new ArrayList<>(size);
+        System.arraycopy(list, 0, clone.list, 0, size);
         return clone;
     }
+
+    /**
+     * @return An iterator over the elements in order. It does not detect changes made to the list while iterating.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int pointer = 0;
+
+            public boolean hasNext() {
+                return pointer < size;
+            }
+
+            public T next() {
+                if (pointer >= size)
+                    throw new NoSuchElementException();
+                return list[pointer++];
+            }
+        };
+    }
 }
@@ -0,0 +1,32 @@
+package com.program.util;
+
+/**
+ * Packs the integer axial (q, r) coordinate of a hex tile into a single long, so it can be used as a hash key without boxing two ints.
+ */
+public class HexCoord {
+
+    /**
+     * @param q The axial column of the tile.
+     * @param r The axial row of the tile.
+     * @return The packed key of the coordinate.
+     */
+    public static long pack(int q, int r) {
+        return ((long) q << 32) | (r & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @param key A packed coordinate.
+     * @return The axial column of the coordinate.
+     */
+    public static int q(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * @param key A packed coordinate.
+     * @return The axial row of the coordinate.
+     */
+    public static int r(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,102 @@
+package com.program.util;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive longs, so that long values are stored without boxing.
+ */
+public class LongArrayList {
+
+    private long[] list;
+    private int size = 0;
+
+    public LongArrayList() {
+        this(8);
+    }
+
+    public LongArrayList(int capacity) {
+        list = new long[Math.max(capacity, 1)];
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * @param element The index of the value.
+     * @return The value at the index. Unlike ArrayList, there is no null to return when the index is out of range.
+     */
+    public long get(int element) {
+        if (element >= size || element < 0)
+            throw new IndexOutOfBoundsException("Index " + element + " out of range for size " + size);
+        return list[element];
+    }
+
+    public void set(int element, long value) {
+        if (element >= size || element < 0)
+            throw new IndexOutOfBoundsException("Index " + element + " out of range for size " + size);
+        list[element] = value;
+    }
+
+    /**
+     * Appends a value, doubling the backing array when it is full.
+     */
+    public void add(long value) {
+        if (size == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[size++] = value;
+    }
+
+    /**
+     * @return The last value, which is removed from the list.
+     */
+    public long removeLast() {
+        if (size == 0)
+            throw new IndexOutOfBoundsException("The list is empty");
+        return list[--size];
+    }
+
+    /**
+     * Removes the value at an index in O(1) by moving the last value into its place, which does not keep the order.
+     * @return The removed value.
+     */
+    public long swapRemove(int element) {
+        long removed = get(element);
+        list[element] = list[--size];
+        return removed;
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (list[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) != -1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return A copy of the values, trimmed to the size of the list.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(list, size);
+    }
+
+    public String toString() {
+        StringBuilder str = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            str.append(list[i]).append(i < size - 1 ? ", " : "");
+        }
+        str.append("}");
+        return str.toString();
+    }
+}
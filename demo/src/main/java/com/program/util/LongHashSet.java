@@ -0,0 +1,146 @@
+package com.program.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of primitive longs, such as packed coordinates, that does not box its elements.
+ */
+public class LongHashSet {
+
+    private static final double MAX_LOAD = 0.5;
+    private static final long EMPTY = 0L; // Marks a free slot, so the element 0 is tracked separately
+
+    private long[] keys;
+    private int mask;
+    private int size = 0;
+    private boolean containsEmpty = false;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() { return size; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsEmpty;
+        }
+        for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the element was added, or false if the set already contained it.
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return false;
+            }
+        }
+        keys[i] = key;
+        if (++size > keys.length * MAX_LOAD) {
+            resize(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the element was removed, or false if the set did not contain it.
+     */
+    public boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsEmpty) {
+                return false;
+            }
+            containsEmpty = false;
+            size--;
+            return true;
+        }
+        int i = slot(key);
+        for (; keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                break;
+            }
+        }
+        if (keys[i] == EMPTY) {
+            return false;
+        }
+        // Shift the following elements of the probe sequence back so that no lookup stops early at the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    /**
+     * @return A new array holding every element of the set, in no particular order.
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int pointer = 0;
+        if (containsEmpty) {
+            result[pointer++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[pointer++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+        for (long key : oldKeys) {
+            if (key != EMPTY) {
+                int j = slot(key);
+                while (keys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = key;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads neighbouring coordinates across the table
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
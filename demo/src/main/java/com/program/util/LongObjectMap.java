@@ -0,0 +1,156 @@
+package com.program.util;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from primitive long keys to objects, so that lookups by packed coordinate do not box the key.
+ * Null values are not allowed, since an empty slot is marked by a null value.
+ */
+public class LongObjectMap<V> {
+
+    private static final double MAX_LOAD = 0.5;
+
+    private long[] keys;
+    private V[] values;
+    private int mask;
+    private int size = 0;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / MAX_LOAD)) - 1) << 1;
+        keys = new long[capacity];
+        values = (V[]) new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Grows the table so that it holds a number of keys without resizing again, e.g. before adding many keys at once.
+     * @param expectedSize The number of keys the map will hold.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > values.length * MAX_LOAD) {
+            resize(Integer.highestOneBit((int) (expectedSize / MAX_LOAD) - 1) << 1);
+        }
+    }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * @param key The key to look up.
+     * @return The value of the key, or null if the map does not contain the key.
+     */
+    public V get(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key The key to store the value under.
+     * @param value The value, which cannot be null.
+     * @return The previous value of the key, or null if the map did not contain the key.
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongObjectMap does not allow null values");
+        }
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > values.length * MAX_LOAD) {
+            resize(values.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @param key The key to remove.
+     * @return The removed value, or null if the map did not contain the key.
+     */
+    public V remove(long key) {
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                break;
+            }
+        }
+        V removed = values[i];
+        if (removed == null) {
+            return null;
+        }
+        // Shift the following entries of the probe sequence back so that no lookup stops early at the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return A new array holding every value in the map, in no particular order.
+     */
+    public Object[] values() {
+        Object[] result = new Object[size];
+        int pointer = 0;
+        for (V value : values) {
+            if (value != null) {
+                result[pointer++] = value;
+            }
+        }
+        return result;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        keys = new long[capacity];
+        values = (V[]) new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int j = slot(oldKeys[i]);
+                while (values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads neighbouring coordinates across the table
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -1,64 +1,109 @@
 package com.program.util;
 
-public class Queue<T> {
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A FIFO queue backed by a ring buffer. The buffer doubles when it is full and halves when it is mostly empty,
+ * so the space of dequeued elements is reused instead of the list growing forever.
+ */
+public class Queue<T> implements Iterable<T> {
+
+    private static final int MIN_CAPACITY = 8;
 
     private T[] list;
-    private int addindex = 0;
-    private int subindex = 0;
+    private int head = 0; // Index of the next element to dequeue
+    private int size = 0;
 
     public Queue() {
-        list = (T[]) new Object[0];
+        list = (T[]) new Object[MIN_CAPACITY];
     }
 
-    public T[] getList() { return list; }
+    /**
+     * @return A copy of the queued elements, in the order they will be dequeued.
+     */
+    public T[] getList() {
+        T[] copy = (T[]) new Object[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = get(i);
+        }
+        return copy;
+    }
 
-    public int size() { return (addindex - subindex); } // If the addindex and subindex are pointing to the same element, that means the list is empty
+    public int size() { return size; }
 
     public boolean isEmpty() { return (size() == 0); }
 
     public String toString() {
         StringBuilder str = new StringBuilder("{");
-        if (size() > 0) {
-            for (int i = subindex; i < addindex; i++) {
-                str.append(list[i]).append(i < addindex - 1 ? ", " : "");
-            }
+        for (int i = 0; i < size; i++) {
+            str.append(get(i)).append(i < size - 1 ? ", " : "");
         }
         str.append("}");
         return str.toString();
     }
 
     public T peek() {
-        if (size() > 0)
-            return list[subindex];
+        if (size > 0)
+            return list[head];
         else
             return null;
     }
 
     public void enqueue(T thing) {
-        if (addindex == list.length) { // If the addindex is now past the size of the list, create a new list with double the size
-            T[] newList = (T[]) new Object[Math.max(1, list.length * 2)]; // If the size is 0 it will become 1
-            System.arraycopy(list, 0, newList, 0, list.length);
-            list = newList;
+        if (size == list.length) { // If the buffer is full, copy it into one with double the size
+            resize(list.length * 2);
         }
-        list[addindex] = thing;
-        addindex++;
+        list[(head + size) & (list.length - 1)] = thing; // The capacity is always a power of two, so masking wraps the index
+        size++;
     }
 
     public T dequeue() {
         T element = null;
-        if (size() > 0) {
-            element = list[subindex];
-            list[subindex] = null;
-            subindex++; // The next dequeue will be from the element after this one, since I am not shifting anything
+        if (size > 0) {
+            element = list[head];
+            list[head] = null;
+            head = (head + 1) & (list.length - 1);
+            size--;
+            if (list.length > MIN_CAPACITY && size < list.length / 4) { // Compact the buffer once it is mostly empty
+                resize(list.length / 2);
+            }
         }
         return element;
     }
 
     public T get(int element) {
-        if (size() > 0)
-            return list[subindex + element]; // Add the subindex offset because if we count from 0 the first few elements may be null
+        if (element >= 0 && element < size)
+            return list[(head + element) & (list.length - 1)]; // Count from the head, wrapping around the end of the buffer
         else
             return null;
     }
 
+    /**
+     * @return An iterator over the elements in the order they will be dequeued. It does not detect changes made while iterating.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int pointer = 0;
+
+            public boolean hasNext() {
+                return pointer < size;
+            }
+
+            public T next() {
+                if (pointer >= size)
+                    throw new NoSuchElementException();
+                return get(pointer++);
+            }
+        };
+    }
+
+    private void resize(int capacity) {
+        T[] newList = (T[]) new Object[capacity];
+        for (int i = 0; i < size; i++) { // Unwrap the elements so that the head starts at index 0 again
+            newList[i] = get(i);
+        }
+        list = newList;
+        head = 0;
+    }
 }
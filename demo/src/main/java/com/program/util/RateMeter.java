@@ -0,0 +1,28 @@
+package com.program.util;
+
+/**
+ * Turns a counter that only goes up, such as a number of ticks, into a rate per second, measured between reads. Meant for
+ * gauges that are read now and then, e.g. over JMX, so the hot path only has to bump its counter.
+ */
+public class RateMeter {
+
+    public static final long MIN_INTERVAL = 1_000_000_000L; // In nanos, below which a read returns the previous rate
+
+    private long lastCount = 0;
+    private long lastNanos = System.nanoTime();
+    private double rate = 0;
+
+    /**
+     * @param count The current value of the counter.
+     * @return The average increase per second since the previous read that was at least MIN_INTERVAL ago.
+     */
+    public synchronized double perSecond(long count) {
+        long now = System.nanoTime();
+        if (now - lastNanos >= MIN_INTERVAL) {
+            rate = Math.max(0, count - lastCount) * 1e9 / (now - lastNanos); // The counter may have been reset
+            lastCount = count;
+            lastNanos = now;
+        }
+        return rate;
+    }
+}
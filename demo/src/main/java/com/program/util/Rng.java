@@ -0,0 +1,82 @@
+package com.program.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A counter-based random number generator. Every draw is a hash of the seed and the (tick, tile, purpose, index) it is drawn
+ * for, so draws need no shared state: any thread can compute any draw in any order, and the same seed always gives the same
+ * numbers.
+ */
+public final class Rng {
+
+    /**
+     * What a number is drawn for, so that draws for different decisions about the same tile and tick are independent.
+     */
+    public enum Purpose {
+        TERRAIN_ORDER, // Shuffling the order in which a tile places its neighbours
+        TERRAIN_TYPE, // Picking the type of a new tile
+        TILE_ROTATION, // Picking the rotation of a new tile
+        GROWTH_ROLL // The percent chances rolled by GrowthSim
+    }
+
+    private final long seed;
+
+    public Rng(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return A generator with a seed that differs between runs.
+     */
+    public static Rng unseeded() {
+        return new Rng(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return An independent generator, e.g. for a separate subsystem that should not share the draws of this one.
+     */
+    public Rng split(long stream) {
+        return new Rng(mix(seed ^ mix(stream)));
+    }
+
+    /**
+     * @param tick The tick the number is drawn in.
+     * @param tile The id of the tile the number is drawn for.
+     * @param purpose What the number is drawn for.
+     * @param index Tells apart several draws with the same tick, tile and purpose.
+     * @return 64 uniformly distributed bits.
+     */
+    public long nextLong(long tick, int tile, Purpose purpose, int index) {
+        long h = mix(seed + tick);
+        h = mix(h + tile);
+        h = mix(h + purpose.ordinal());
+        return mix(h + index);
+    }
+
+    /**
+     * @return A uniformly distributed double in [0, 1).
+     */
+    public double nextDouble(long tick, int tile, Purpose purpose, int index) {
+        return (nextLong(tick, tile, purpose, index) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @param bound The exclusive upper bound, which must be positive.
+     * @return A uniformly distributed int in [0, bound).
+     */
+    public int nextInt(int bound, long tick, int tile, Purpose purpose, int index) {
+        return (int) (((nextLong(tick, tile, purpose, index) >>> 32) * bound) >>> 32);
+    }
+
+    // The finalizer of SplitMix64, which spreads every input bit over the whole output
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,203 @@
+package com.program.util;
+
+/**
+ * A fixed amount of history for several series that are sampled together, such as the populations and yields of a world,
+ * kept at several resolutions in primitive ring buffers.
+ * <p>
+ * Level 0 holds the latest samples as they are. Every level above it holds buckets of FACTOR buckets of the level below,
+ * as their min, max and mean, so with the same capacity at every level each level reaches FACTOR times further back than
+ * the one below it while the memory used stays the same however many samples are added. A window of any length can then
+ * be read in about as many points as it is drawn with, see query.
+ * <p>
+ * Samples are added and queried on different threads, e.g. the simulation thread and the JavaFX thread.
+ */
+public class SeriesStore {
+
+    public static final int FACTOR = 4; // The number of buckets of a level that make up one bucket of the level above
+
+    private final int channels;
+    private final int capacity; // The number of buckets held at each level
+    private final int levels;
+
+    // By level, then as rings of buckets of one value per channel. Level 0 only has means, which are also its mins and maxes
+    private final float[][] mins, maxs, means;
+    private final long[] counts; // The number of buckets ever completed at each level
+
+    // The bucket being filled at each level above 0, one value per channel
+    private final float[][] partialMins, partialMaxs;
+    private final double[][] partialSums;
+    private final int[] partialCounts;
+
+    /**
+     * @param channels The number of series, i.e. the length of every sample.
+     * @param capacity The number of buckets held at each level, where the buckets of level 0 are single samples.
+     * @param levels The number of levels, so that the last one holds buckets of FACTOR^(levels - 1) samples.
+     */
+    public SeriesStore(int channels, int capacity, int levels) {
+        this.channels = channels;
+        this.capacity = capacity;
+        this.levels = levels;
+        mins = new float[levels][];
+        maxs = new float[levels][];
+        means = new float[levels][];
+        counts = new long[levels];
+        partialMins = new float[levels][channels];
+        partialMaxs = new float[levels][channels];
+        partialSums = new double[levels][channels];
+        partialCounts = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            means[level] = new float[capacity * channels];
+            if (level > 0) {
+                mins[level] = new float[capacity * channels];
+                maxs[level] = new float[capacity * channels];
+            }
+        }
+    }
+
+    public int channels() { return channels; }
+
+    /**
+     * @return The number of samples added since the store was created or cleared, which is also the index of the next.
+     */
+    public synchronized long size() { return counts[0]; }
+
+    /**
+     * Adds a sample to every series.
+     * @param sample One value per channel, which is copied.
+     */
+    public synchronized void add(double[] sample) {
+        int slot = (int) (counts[0] % capacity) * channels;
+        for (int channel = 0; channel < channels; channel++) {
+            means[0][slot + channel] = (float) sample[channel];
+        }
+        counts[0]++;
+
+        // Fold the bucket that was just completed into the level above, which may complete a bucket there in turn
+        for (int level = 1; level < levels; level++) {
+            int below = (int) ((counts[level - 1] - 1) % capacity) * channels;
+            float[] belowMins = level == 1 ? means[0] : mins[level - 1];
+            float[] belowMaxs = level == 1 ? means[0] : maxs[level - 1];
+            boolean first = partialCounts[level] == 0;
+            for (int channel = 0; channel < channels; channel++) {
+                float min = belowMins[below + channel], max = belowMaxs[below + channel];
+                partialMins[level][channel] = first ? min : Math.min(partialMins[level][channel], min);
+                partialMaxs[level][channel] = first ? max : Math.max(partialMaxs[level][channel], max);
+                partialSums[level][channel] += means[level - 1][below + channel];
+            }
+            if (++partialCounts[level] < FACTOR) {
+                break;
+            }
+            slot = (int) (counts[level] % capacity) * channels;
+            for (int channel = 0; channel < channels; channel++) {
+                mins[level][slot + channel] = partialMins[level][channel];
+                maxs[level][slot + channel] = partialMaxs[level][channel];
+                means[level][slot + channel] = (float) (partialSums[level][channel] / FACTOR); // Every bucket is as big
+                partialSums[level][channel] = 0;
+            }
+            partialCounts[level] = 0;
+            counts[level]++;
+        }
+    }
+
+    /**
+     * @return The index of the oldest sample that is still held at some level.
+     */
+    public synchronized long oldest() {
+        return firstHeld(levels - 1);
+    }
+
+    /**
+     * Reads one series over a window of samples in at most maxPoints points, each of which covers the same number of
+     * samples. The finest level that holds the whole window is used, and its buckets are merged further if there are still
+     * more than maxPoints of them. The samples after the last completed bucket of that level are left out, which is less
+     * than one point's worth.
+     * @param channel The series to read.
+     * @param from The index of the first sample of the window, which is moved up to the oldest sample still held.
+     * @param to The index after the last sample of the window, which is moved down to size.
+     * @param maxPoints The most points to return, e.g. the width of the chart in pixels.
+     * @param times Set to the index of the first sample of each point.
+     * @param pointMins Set to the smallest sample of each point.
+     * @param pointMaxs Set to the largest sample of each point.
+     * @param pointMeans Set to the mean of the samples of each point.
+     * @return The number of points, each array having been filled up to it.
+     */
+    public synchronized int query(int channel, long from, long to, int maxPoints,
+                                  long[] times, float[] pointMins, float[] pointMaxs, float[] pointMeans) {
+        to = Math.min(to, counts[0]);
+        int level = 0;
+        while (level < levels - 1 && (firstHeld(level) > from || buckets(level, from, to) > (long) maxPoints * FACTOR)) {
+            level++;
+        }
+        from = Math.max(from, firstHeld(level));
+        if (from >= to) {
+            return 0;
+        }
+
+        long bucketSize = pow(level);
+        long first = from / bucketSize, last = Math.min(ceilDiv(to, bucketSize), counts[level]); // In buckets of the level
+        long merge = Math.max(1, ceilDiv(last - first, maxPoints)); // Buckets per point
+        float[] levelMins = level == 0 ? means[0] : mins[level];
+        float[] levelMaxs = level == 0 ? means[0] : maxs[level];
+        int points = 0;
+        for (long bucket = first; bucket < last; bucket += merge) {
+            long end = Math.min(bucket + merge, last);
+            float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+            double sum = 0;
+            for (long b = bucket; b < end; b++) {
+                int slot = (int) (b % capacity) * channels + channel;
+                min = Math.min(min, levelMins[slot]);
+                max = Math.max(max, levelMaxs[slot]);
+                sum += means[level][slot];
+            }
+            times[points] = bucket * bucketSize;
+            pointMins[points] = min;
+            pointMaxs[points] = max;
+            pointMeans[points] = (float) (sum / (end - bucket));
+            points++;
+        }
+        return points;
+    }
+
+    /**
+     * Drops every sample, e.g. when the world is reset.
+     */
+    public synchronized void clear() {
+        for (int level = 0; level < levels; level++) {
+            counts[level] = 0;
+            partialCounts[level] = 0;
+            for (int channel = 0; channel < channels; channel++) {
+                partialSums[level][channel] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return The number of bytes taken up by the buffers, which does not change as samples are added.
+     */
+    public long footprint() {
+        return (long) (capacity * channels) * (1 + 3 * (levels - 1)) * Float.BYTES;
+    }
+
+    // The index of the first sample of the oldest bucket still held at a level
+    private long firstHeld(int level) {
+        return Math.max(0, counts[level] - capacity) * pow(level);
+    }
+
+    // The number of buckets of a level that overlap a window of samples
+    private long buckets(int level, long from, long to) {
+        return ceilDiv(to, pow(level)) - from / pow(level);
+    }
+
+    // The number of samples in a bucket of a level
+    private static long pow(int level) {
+        long size = 1;
+        for (int i = 0; i < level; i++) {
+            size *= FACTOR;
+        }
+        return size;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+}
@@ -1,11 +1,15 @@
 package com.program.util;
 
 import com.program.objects.tile.Tile;
+import com.program.objects.tile.TileStore;
 
 import java.util.Objects;
 
 public class TileGraph {
 
+    // The number of grid neighbours a hex tile can have
+    public static final int MAX_GRID_DEGREE = 6;
+
     public class Edge {
         Vertex destination;
         double weight;
@@ -19,12 +23,14 @@ public class TileGraph {
     public class Vertex {
         Tile label;
         boolean inactive; // Used for adding inactive tiles to the graph when a tile's adjacencies are calculated, but before they become occupied
-        ArrayList<Edge> edges;
+        int index; // Position of the vertex in the vertices array
+        // Grid neighbours in the order of Tile.AXIAL_ADJACENCIES, linked by coordinate when a vertex is added instead of being stored as edges
+        final Vertex[] neighbours = new Vertex[MAX_GRID_DEGREE];
+        ArrayList<Edge> edges; // Explicit edges for links that are not grid neighbours, only created when needed
 
         public Vertex(Tile label) {
             this.label = label;
             inactive = true;
-            edges = new ArrayList<Edge>();
         }
 
         @Override
@@ -34,11 +40,26 @@ public class TileGraph {
             Vertex vertex = (Vertex) o;
             return Objects.equals(label, vertex.label);
         }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(label);
+        }
     }
-    
+
     private int order = 0;
     private int size = 0;
     private ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+    private final LongObjectMap<Vertex> verticesByKey = new LongObjectMap<>(); // Vertices keyed by the packed coordinate of their label
+
+    /**
+     * Makes room for a number of vertices, e.g. before rebuilding the graph of a whole world at once.
+     * @param order The number of vertices the graph will hold.
+     */
+    public void ensureCapacity(int order) {
+        vertices.ensureCapacity(order);
+        verticesByKey.ensureCapacity(order);
+    }
 
     /**
      * @return The number of vertices in the graph.
@@ -48,7 +69,7 @@ public class TileGraph {
     }
 
     /**
-     * @return The number of edges in the graph.
+     * @return The number of edges in the graph, counting every pair of neighbouring vertices once.
      */
     public int size() {
         return size;
@@ -59,26 +80,42 @@ public class TileGraph {
      * @return The number of edges incident with the vertex.
      */
     public int degree(Tile sourceLabel) {
-        int indexOfSource = getIndexOfVertex(sourceLabel);
-        return (vertices.get(indexOfSource).edges.size());
+        Vertex source = verticesByKey.get(sourceLabel.key());
+        if (source == null) {
+            return 0;
+        }
+        int degree = 0;
+        for (Vertex neighbour : source.neighbours) {
+            if (neighbour != null) {
+                degree++;
+            }
+        }
+        return degree + (source.edges == null ? 0 : source.edges.size());
     }
 
     /**
      * @return A string representation of each vertex alongside all of its connected vertices.
      */
     public String toString() {
-        String result = "";
+        StringBuilder result = new StringBuilder();
         for (int i = 0; i < vertices.size(); i++) {
-            result += "\"" + vertices.get(i).label + "\", Inactive = " + vertices.get(i).inactive + " -> [";
-            for (int j = 0; j < vertices.get(i).edges.size(); j++) {
-                Edge e = vertices.get(i).edges.get(j);
-                result += e.destination.label + " (" + e.weight + ")";
-                if (j != vertices.get(i).edges.size() - 1) // Don't add a comma after the last element
-                    result += ", "; 
+            Vertex vertex = vertices.get(i);
+            result.append("\"").append(vertex.label).append("\", Inactive = ").append(vertex.inactive).append(" -> [");
+            String separator = ""; // Don't add a comma before the first element
+            for (Vertex neighbour : vertex.neighbours) {
+                if (neighbour != null) {
+                    result.append(separator).append(neighbour.label);
+                    separator = ", ";
+                }
             }
-            result += "]\n";
+            for (int j = 0; vertex.edges != null && j < vertex.edges.size(); j++) {
+                Edge e = vertex.edges.get(j);
+                result.append(separator).append(e.destination.label).append(" (").append(e.weight).append(")");
+                separator = ", ";
+            }
+            result.append("]\n");
         }
-        return result;
+        return result.toString();
     }
 
     /**
@@ -93,7 +130,10 @@ public class TileGraph {
      * @param label The label that the vertex contains.
      */
     public void setInactive(Tile label) {
-        vertices.get(getIndexOfVertex(label)).inactive = true;
+        Vertex vertex = verticesByKey.get(label.key());
+        if (vertex != null) {
+            vertex.inactive = true;
+        }
     }
 
     /**
@@ -101,68 +141,105 @@ public class TileGraph {
      * @param label The label that the vertex contains.
      */
     public void setActive(Tile label) {
-        vertices.get(getIndexOfVertex(label)).inactive = false;
+        Vertex vertex = verticesByKey.get(label.key());
+        if (vertex != null) {
+            vertex.inactive = false;
+        }
     }
 
     /**
-     * Adds a new vertex to the graph.
+     * Adds a new vertex to the graph and links it with every vertex already placed at one of its six neighbouring coordinates.
      * @param label The label that the new vertex will contain.
      */
     public void addVertex(Tile label) {
-        if (getIndexOfVertex(label) == -1) { // Check if the vertex does not already exist in the graph
-            vertices.add(new Vertex(label));
+        if (!verticesByKey.containsKey(label.key())) { // Check if the vertex does not already exist in the graph
+            Vertex vertex = new Vertex(label);
+            vertex.index = vertices.size();
+            vertices.add(vertex);
+            verticesByKey.put(label.key(), vertex);
             order++;
+            for (int i = 0; i < MAX_GRID_DEGREE; i++) {
+                int[] offset = Tile.AXIAL_ADJACENCIES[i];
+                Vertex neighbour = verticesByKey.get(HexCoord.pack(label.q() + offset[0], label.r() + offset[1]));
+                if (neighbour != null) {
+                    vertex.neighbours[i] = neighbour;
+                    neighbour.neighbours[(i + MAX_GRID_DEGREE / 2) % MAX_GRID_DEGREE] = vertex; // The opposite direction
+                    size++;
+                }
+            }
         }
     }
 
     /**
-     * Searches through the vertices array for a vertex that contains the same label.
+     * Adds a vertex for every tile of a store in id order, e.g. to rebuild the graph of a whole world at once. The vertices
+     * of occupied tiles are active. Gives the same graph as adding them one at a time and activating the occupied ones, but
+     * since every vertex is in place before any are linked, each pair of neighbours is only looked up from whichever of the
+     * two comes first.
+     * @param tiles The store holding the labels of the new vertices.
+     */
+    public void addVertices(TileStore tiles) {
+        ensureCapacity(order + tiles.size());
+        int first = vertices.size();
+        for (int id = 0; id < tiles.size(); id++) {
+            Tile label = tiles.tile(id);
+            if (!verticesByKey.containsKey(label.key())) {
+                Vertex vertex = new Vertex(label);
+                vertex.inactive = !tiles.isOccupied(id);
+                vertex.index = vertices.size();
+                vertices.add(vertex);
+                verticesByKey.put(label.key(), vertex);
+                order++;
+            }
+        }
+        for (int index = first; index < vertices.size(); index++) {
+            Vertex vertex = vertices.get(index);
+            int q = vertex.label.q(), r = vertex.label.r();
+            for (int i = 0; i < MAX_GRID_DEGREE; i++) {
+                if (vertex.neighbours[i] != null) { // Linked from the other side already
+                    continue;
+                }
+                int[] offset = Tile.AXIAL_ADJACENCIES[i];
+                Vertex neighbour = verticesByKey.get(HexCoord.pack(q + offset[0], r + offset[1]));
+                if (neighbour != null) {
+                    vertex.neighbours[i] = neighbour;
+                    neighbour.neighbours[(i + MAX_GRID_DEGREE / 2) % MAX_GRID_DEGREE] = vertex;
+                    size++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Looks up the vertex that contains the same label.
      * @param label The label that the vertex contains.
      * @return The index of the vertex in the vertices array if found, otherwise returns -1.
      */
     public int getIndexOfVertex(Tile label) {
-        return vertices.indexOf(new Vertex(label));
+        Vertex vertex = verticesByKey.get(label.key());
+        return vertex == null ? -1 : vertex.index;
     }
 
     /**
      * Draws an edge from a source to a destination with a given weight.
+     * Grid neighbours are always adjacent, so an explicit edge is only stored for links that are not grid neighbours.
      * @param sourceLabel The label of the vertex that the edge will begin from.
      * @param destinationLabel The label of the vertex that the edge will point to.
      * @param weight The weight of the edge.
      * @param bidirectional If an edge should also be generated from the destination to the source.
      */
     public void addEdge(Tile sourceLabel, Tile destinationLabel, double weight, boolean bidirectional) {
-        int indexOfSource = getIndexOfVertex(sourceLabel);
-        int indexOfDestination = getIndexOfVertex(destinationLabel);
-    
-        if (indexOfSource != -1 && indexOfDestination != -1) { // Check if the vertices exist in the graph
-            Vertex sourceVertex = vertices.get(indexOfSource);
-            Vertex destinationVertex = vertices.get(indexOfDestination);
-            Edge newEdge = new Edge(destinationVertex, weight);
-            boolean existing = false;
-            for (int i = 0; i < sourceVertex.edges.size(); i++) { // Check if the edge already exists in the source vertex's edge list
-                if (sourceVertex.edges.get(i).destination.label.equals(destinationLabel)) {
-                    existing = true;
-                    break;
-                }
+        Vertex sourceVertex = verticesByKey.get(sourceLabel.key());
+        Vertex destinationVertex = verticesByKey.get(destinationLabel.key());
+
+        if (sourceVertex != null && destinationVertex != null) { // Check if the vertices exist in the graph
+            if (gridDirection(sourceLabel, destinationLabel) != -1) {
+                return; // Already linked through the grid
             }
-            if (!existing) {
-                sourceVertex.edges.add(newEdge);
+            if (addExplicitEdge(sourceVertex, destinationVertex, weight)) {
                 size++;
             }
-
             if (bidirectional) { // Add an edge going the other way
-                newEdge = new Edge(sourceVertex, weight);
-                existing = false;
-                for (int i = 0; i < destinationVertex.edges.size(); i++) {
-                    if (destinationVertex.edges.get(i).destination.label.equals(sourceLabel)) {
-                        existing = true;
-                        break;
-                    }
-                }
-                if (!existing) {
-                    destinationVertex.edges.add(newEdge);
-                }
+                addExplicitEdge(destinationVertex, sourceVertex, weight);
             }
         }
     }
@@ -173,16 +250,15 @@ public class TileGraph {
      * @return True if there exists an edge between the first and second vertices, otherwise returns false.
      */
     public boolean areAdjacent(Tile label1, Tile label2) {
-        int indexOfSource = getIndexOfVertex(label1); // Search if the source label exists
-        if (indexOfSource != -1) { // If the source label does exist
-            Vertex sourceVertex = vertices.get(indexOfSource);
-            for (int i = 0; i < sourceVertex.edges.size(); i++) {
-                if (sourceVertex.edges.get(i).destination.label.equals(label2))
-                    return true;
-            }
+        Vertex vertex1 = verticesByKey.get(label1.key());
+        Vertex vertex2 = verticesByKey.get(label2.key());
+        if (vertex1 == null || vertex2 == null) {
+            return false;
         }
-        areAdjacent(label2, label1); // Check the other way
-        return false;
+        if (gridDirection(label1, label2) != -1) {
+            return true;
+        }
+        return hasExplicitEdge(vertex1, vertex2) || hasExplicitEdge(vertex2, vertex1); // Check both ways
     }
 
     /**
@@ -190,16 +266,99 @@ public class TileGraph {
      * @return An ArrayList of Tiles that are adjacent to the source and active.
      */
     public ArrayList<Tile> returnAdjacentActiveTiles(Tile sourceLabel) {
-        ArrayList<Tile> adjacentTiles = new ArrayList<>();
-        int indexOfVertex = getIndexOfVertex(sourceLabel); // Search if the label exists
-        if (indexOfVertex != -1) { // If the label does exist
-            Vertex sourceVertex = vertices.get(indexOfVertex);
-            for (int i = 0; i < sourceVertex.edges.size(); i++) {
-                if (!sourceVertex.edges.get(i).destination.inactive) { // If the tile is not inactive
-                    adjacentTiles.add(sourceVertex.edges.get(i).destination.label);
-                }
-            }
+        Tile[] buffer = new Tile[degree(sourceLabel)];
+        int count = collectAdjacentActiveTiles(sourceLabel, buffer);
+        ArrayList<Tile> adjacentTiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            adjacentTiles.set(i, buffer[i]);
         }
         return adjacentTiles;
     }
+
+    /**
+     * Writes the active tiles adjacent to the source into a caller-owned buffer, so that hot loops can reuse one buffer without allocating.
+     * @param sourceLabel The label that the vertex contains.
+     * @param buffer The array to write the tiles into. MAX_GRID_DEGREE is enough unless explicit edges were added.
+     * @return The number of tiles written to the buffer, which stops at its length.
+     */
+    public int collectAdjacentActiveTiles(Tile sourceLabel, Tile[] buffer) {
+        Vertex source = verticesByKey.get(sourceLabel.key());
+        if (source == null) { // If the label does not exist
+            return 0;
+        }
+        int count = 0;
+        for (Vertex neighbour : source.neighbours) {
+            if (neighbour != null && !neighbour.inactive && count < buffer.length) { // If the tile is not inactive
+                buffer[count++] = neighbour.label;
+            }
+        }
+        for (int i = 0; source.edges != null && i < source.edges.size(); i++) {
+            Vertex destination = source.edges.get(i).destination;
+            if (!destination.inactive && count < buffer.length) {
+                buffer[count++] = destination.label;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the ids of the active tiles adjacent to a tile into a caller-owned buffer, for loops that work on the TileStore columns.
+     * @param key The packed axial coordinate of the tile.
+     * @param buffer The array to write the ids into. MAX_GRID_DEGREE is enough unless explicit edges were added.
+     * @return The number of ids written to the buffer, which stops at its length.
+     */
+    public int collectAdjacentActiveIds(long key, int[] buffer) {
+        Vertex source = verticesByKey.get(key);
+        if (source == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Vertex neighbour : source.neighbours) {
+            if (neighbour != null && !neighbour.inactive && count < buffer.length) {
+                buffer[count++] = neighbour.label.id;
+            }
+        }
+        for (int i = 0; source.edges != null && i < source.edges.size(); i++) {
+            Vertex destination = source.edges.get(i).destination;
+            if (!destination.inactive && count < buffer.length) {
+                buffer[count++] = destination.label.id;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The index in Tile.AXIAL_ADJACENCIES that leads from the first tile to the second, or -1 if they are not grid neighbours.
+     */
+    private int gridDirection(Tile from, Tile to) {
+        for (int i = 0; i < MAX_GRID_DEGREE; i++) {
+            if (from.q() + Tile.AXIAL_ADJACENCIES[i][0] == to.q() && from.r() + Tile.AXIAL_ADJACENCIES[i][1] == to.r()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return True if the edge was added, or false if it already existed.
+     */
+    private boolean addExplicitEdge(Vertex source, Vertex destination, double weight) {
+        if (hasExplicitEdge(source, destination)) {
+            return false;
+        }
+        if (source.edges == null) {
+            source.edges = new ArrayList<>();
+        }
+        source.edges.add(new Edge(destination, weight));
+        return true;
+    }
+
+    private boolean hasExplicitEdge(Vertex source, Vertex destination) {
+        for (int i = 0; source.edges != null && i < source.edges.size(); i++) {
+            if (source.edges.get(i).destination == destination) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -2,6 +2,13 @@ module com.program {
 
     requires javafx.controls;
     requires transitive javafx.graphics;
+    requires java.management; // For the MBeans of Metrics
 
     exports com.program;
+    exports com.program.render;
+    // The headless simulation core, which has no JavaFX dependencies
+    exports com.program.engine;
+    exports com.program.sim;
+    exports com.program.objects.tile;
+    exports com.program.util;
 }
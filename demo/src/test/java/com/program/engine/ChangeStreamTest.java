@@ -0,0 +1,44 @@
+package com.program.engine;
+
+import com.program.World;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a ChangeSet carries everything a renderer needs to show a tile, so that it never has to read the world.
+ */
+class ChangeStreamTest {
+
+    @Test
+    void entriesCarryTheCoordinatesAndLatestStateOfTheirTile() {
+        Engine engine = new Engine();
+        engine.reset(1);
+        ChangeStream.Subscription subscription = engine.subscribe();
+        engine.step(500);
+
+        ChangeSet changes = subscription.drain();
+        World world = changes.getWorld();
+        assertTrue(changes.size() > 1, "Nothing changed, so the test shows nothing");
+        for (int i = 0; i < changes.size(); i++) {
+            int id = changes.tileId(i);
+            assertEquals(world.TILES.q(id), changes.q(i));
+            assertEquals(world.TILES.r(id), changes.r(i));
+            assertEquals(world.TILES.state(id), changes.newState(i));
+        }
+    }
+
+    @Test
+    void drainingStartsAnEmptySet() {
+        Engine engine = new Engine();
+        engine.reset(1);
+        ChangeStream.Subscription subscription = engine.subscribe();
+        engine.step(50);
+        subscription.drain();
+
+        ChangeSet changes = subscription.drain();
+        assertEquals(0, changes.size());
+        assertTrue(changes.isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.program.engine;
+
+import com.program.sim.Sim;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickSchedulerTest {
+
+    @Test
+    void turboDoesNotAdvanceAPausedWorld() throws InterruptedException {
+        Engine engine = new Engine();
+        engine.reset(1);
+        for (Sim sim : new Sim[] {engine.TERRAIN_SIM, engine.GROWTH_SIM, engine.POP_SIM}) {
+            sim.pause(); // As every Sim starts out
+        }
+        int occupied = engine.getWorld().OCCUPIED_TILES.size();
+        TickScheduler scheduler = new TickScheduler(engine);
+        try {
+            scheduler.setTurbo(true);
+            scheduler.start();
+            Thread.sleep(4 * TickScheduler.FRAME_NANOS / 1_000_000); // A few batches
+            assertEquals(0, scheduler.getTick());
+            assertEquals(occupied, runOnSimulationThread(scheduler, () -> engine.getWorld().OCCUPIED_TILES.size()));
+        }
+        finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    void turboRunsThePlayingSims() throws InterruptedException {
+        Engine engine = new Engine();
+        engine.reset(1);
+        engine.TERRAIN_SIM.play(); // The others stay paused, as every Sim starts out
+        TickScheduler scheduler = new TickScheduler(engine);
+        CountDownLatch changed = new CountDownLatch(1);
+        scheduler.setChangeListener(changed::countDown);
+        try {
+            scheduler.setTurbo(true);
+            scheduler.start();
+            assertTrue(changed.await(10, TimeUnit.SECONDS));
+            assertTrue(scheduler.getTick() > 0);
+            assertTrue(runOnSimulationThread(scheduler, () -> engine.getWorld().OCCUPIED_TILES.size()) > 1);
+        }
+        finally {
+            scheduler.shutdown();
+        }
+    }
+
+    // Reads the world on the thread that owns it, as the scheduler expects
+    private static int runOnSimulationThread(TickScheduler scheduler, IntSupplier read) throws InterruptedException {
+        int[] result = new int[1];
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            result[0] = read.getAsInt();
+            done.countDown();
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return result[0];
+    }
+}
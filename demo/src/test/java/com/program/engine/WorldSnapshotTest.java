@@ -0,0 +1,181 @@
+package com.program.engine;
+
+import com.program.World;
+import com.program.objects.tile.TileStore;
+import com.program.sim.GrowthSim;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a world loaded from a snapshot is the world that was saved, and that it carries on exactly as the original
+ * does.
+ */
+class WorldSnapshotTest {
+
+    private static final long SEED = 1;
+    private static final int TICKS = 300;
+    // Where the tiles start in a snapshot: magic, version, seed, generation, three sim settings, growth settings, counts
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + 3 * (Double.BYTES + 1) + 3 + 3 * Integer.BYTES;
+    private static final int TILE_BYTES = 2 * Integer.BYTES + 5; // q, r, type, first type, stage, rotation, abandoned
+    private static final int STAGE = 2 * Integer.BYTES + 2, ROTATION = STAGE + 1; // Offsets within a tile record
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadedWorldEqualsTheSavedOne() throws IOException {
+        Engine saved = grownEngine();
+        Engine loaded = new Engine();
+        Path path = directory.resolve("grown.world");
+        saved.save(path);
+        loaded.load(path);
+
+        assertWorldsEqual(saved.getWorld(), loaded.getWorld());
+        assertEquals(saved.GROWTH_SIM.getMode(), loaded.GROWTH_SIM.getMode());
+    }
+
+    @Test
+    void loadedWorldCarriesOnLikeTheSavedOne() throws IOException {
+        Engine saved = grownEngine();
+        Engine loaded = new Engine();
+        Path path = directory.resolve("grown.world");
+        saved.save(path);
+        loaded.load(path);
+
+        saved.step(TICKS);
+        loaded.step(TICKS);
+        assertWorldsEqual(saved.getWorld(), loaded.getWorld());
+    }
+
+    @Test
+    void subscribersReceiveEveryOccupiedTileOfTheLoadedWorld() throws IOException {
+        Engine saved = grownEngine();
+        Path path = directory.resolve("grown.world");
+        saved.save(path);
+        Engine loaded = new Engine();
+        loaded.reset(SEED + 1);
+        ChangeStream.Subscription subscription = loaded.subscribe();
+        loaded.step(10); // Changes to the old world, which the reset should drop
+        loaded.load(path);
+
+        ChangeSet changes = subscription.drain();
+        World world = loaded.getWorld();
+        assertTrue(changes.isReset());
+        assertEquals(world, changes.getWorld());
+        assertEquals(world.OCCUPIED_TILES.size(), changes.size());
+        for (int rank = 0; rank < world.OCCUPIED_TILES.size(); rank++) {
+            int id = world.OCCUPIED_TILES.get(rank);
+            assertEquals(id, changes.tileId(rank), "Occupied tile " + rank);
+            assertEquals(ChangeSet.NOT_OCCUPIED, changes.oldState(rank));
+            assertEquals(world.TILES.state(id), changes.newState(rank));
+            assertEquals(world.TILES.q(id), changes.q(rank));
+            assertEquals(world.TILES.r(id), changes.r(rank));
+        }
+    }
+
+    @Test
+    void corruptSnapshotLeavesTheWorldAsItWas() throws IOException {
+        Engine engine = grownEngine();
+        World world = engine.getWorld();
+        Path path = directory.resolve("corrupt.world");
+        engine.save(path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThrows(IOException.class, () -> engine.load(path));
+        assertEquals(world, engine.getWorld());
+    }
+
+    @Test
+    void outOfRangeRotationIsRejected() throws IOException {
+        assertCorrupt(bytes -> bytes.put(HEADER_BYTES + ROTATION, (byte) TileStore.ROTATIONS.length));
+        assertCorrupt(bytes -> bytes.put(HEADER_BYTES + TILE_BYTES + ROTATION, (byte) -1));
+    }
+
+    @Test
+    void outOfRangeStageIsRejected() throws IOException {
+        assertCorrupt(bytes -> bytes.put(HEADER_BYTES + STAGE, (byte) 0));
+        assertCorrupt(bytes -> bytes.put(HEADER_BYTES + TILE_BYTES + STAGE, (byte) (TileStore.MAX_STAGE + 1)));
+    }
+
+    @Test
+    void tileListedTwiceIsRejected() throws IOException {
+        // Within the occupied tiles, and in both the occupied and the free tiles
+        assertCorrupt(bytes -> bytes.putInt(idsStart(bytes) + Integer.BYTES, bytes.getInt(idsStart(bytes))));
+        assertCorrupt(bytes -> bytes.putInt(idsStart(bytes) + occupiedCount(bytes) * Integer.BYTES,
+                bytes.getInt(idsStart(bytes))));
+    }
+
+    // Saves a grown world, changes the snapshot and checks that loading it throws and keeps the engine's world
+    private void assertCorrupt(Consumer<ByteBuffer> corruption) throws IOException {
+        Engine engine = grownEngine();
+        World world = engine.getWorld();
+        Path path = directory.resolve("corrupt.world");
+        engine.save(path);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        corruption.accept(bytes);
+        Files.write(path, bytes.array());
+
+        assertThrows(IOException.class, () -> engine.load(path));
+        assertEquals(world, engine.getWorld());
+    }
+
+    private static int occupiedCount(ByteBuffer bytes) {
+        return bytes.getInt(HEADER_BYTES - 2 * Integer.BYTES);
+    }
+
+    // Where the ids of the occupied tiles start, which the ids of the free tiles follow
+    private static int idsStart(ByteBuffer bytes) {
+        return HEADER_BYTES + bytes.getInt(HEADER_BYTES - 3 * Integer.BYTES) * TILE_BYTES;
+    }
+
+    // An engine whose world has grown for a while, in the mode the growth tick only depends on the seed in
+    private static Engine grownEngine() {
+        Engine engine = new Engine();
+        engine.GROWTH_SIM.setMode(GrowthSim.Mode.BUFFERED);
+        engine.reset(SEED);
+        engine.step(TICKS);
+        return engine;
+    }
+
+    private static void assertWorldsEqual(World expected, World actual) {
+        assertEquals(expected.RNG.getSeed(), actual.RNG.getSeed());
+        assertEquals(expected.getGeneration(), actual.getGeneration());
+
+        int size = expected.TILES.size();
+        assertEquals(size, actual.TILES.size());
+        for (int id = 0; id < size; id++) {
+            assertEquals(expected.TILES.key(id), actual.TILES.key(id), "Coordinates of tile " + id);
+            assertEquals(expected.TILES.state(id), actual.TILES.state(id), "State of tile " + id);
+            assertEquals(expected.TILES.firstType(id), actual.TILES.firstType(id), "First type of tile " + id);
+        }
+        assertArrayEquals(Arrays.copyOf(expected.TILES.types(), size), Arrays.copyOf(actual.TILES.types(), size));
+        assertArrayEquals(Arrays.copyOf(expected.TILES.stages(), size), Arrays.copyOf(actual.TILES.stages(), size));
+        assertArrayEquals(Arrays.copyOf(expected.TILES.flags(), size), Arrays.copyOf(actual.TILES.flags(), size));
+
+        assertEquals(expected.OCCUPIED_TILES.size(), actual.OCCUPIED_TILES.size());
+        for (int rank = 0; rank < expected.OCCUPIED_TILES.size(); rank++) {
+            assertEquals(expected.OCCUPIED_TILES.get(rank), actual.OCCUPIED_TILES.get(rank), "Occupied tile " + rank);
+        }
+        assertEquals(expected.FREE_TILES.size(), actual.FREE_TILES.size());
+        for (int i = 0; i < expected.FREE_TILES.size(); i++) {
+            assertEquals(expected.FREE_TILES.get(i).id, actual.FREE_TILES.get(i).id, "Free tile " + i);
+        }
+
+        assertArrayEquals(expected.POPULATIONS, actual.POPULATIONS);
+        assertArrayEquals(expected.YIELDS, actual.YIELDS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.program.render;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a mesh pack gives back the assets it was written with, and notices when their .obj files change.
+ */
+class MeshPackTest {
+
+    private static final String TRIANGLE = "v 0 0 0\nv 1 0 0\nv 0 1 0\nvt 0 0\nvn 0 0 1\nf 1/1/1 2/1/1 3/1/1\n";
+    private static final String SQUARE = TRIANGLE + "v 1 1 0\nf 2/1/1 4/1/1 3/1/1\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void packHoldsTheParsedAssets() throws IOException {
+        File source = obj("triangle1", TRIANGLE);
+        MeshPack pack = pack(source);
+
+        MeshData parsed = ObjLoader.readObj(source.getPath());
+        MeshData packed = pack.get("triangle1");
+        assertNotNull(packed);
+        assertArrayEquals(parsed.points, packed.points);
+        assertArrayEquals(parsed.texCoords, packed.texCoords);
+        assertArrayEquals(parsed.normals, packed.normals);
+        assertArrayEquals(parsed.faces, packed.faces);
+        assertNull(pack.get("square1"));
+    }
+
+    @Test
+    void editedSourceMakesTheAssetStale() throws IOException {
+        File source = obj("triangle1", TRIANGLE);
+        MeshPack pack = pack(source);
+        assertTrue(pack.isUpToDate("triangle1", source));
+        assertFalse(pack.isUpToDate("square1", source), "The pack does not hold the asset");
+
+        long packed = source.lastModified();
+        Files.writeString(source.toPath(), SQUARE);
+        assertTrue(source.setLastModified(packed)); // Only the size gives the edit away
+        assertFalse(pack.isUpToDate("triangle1", source));
+
+        Files.writeString(source.toPath(), TRIANGLE);
+        assertTrue(source.setLastModified(packed + 1000)); // Only the time gives the edit away
+        assertFalse(pack.isUpToDate("triangle1", source));
+    }
+
+    @Test
+    void missingSourceLeavesThePackInCharge() throws IOException {
+        File source = obj("triangle1", TRIANGLE);
+        MeshPack pack = pack(source);
+        Files.delete(source.toPath());
+        assertTrue(pack.isUpToDate("triangle1", source));
+    }
+
+    private File obj(String name, String text) throws IOException {
+        return Files.writeString(directory.resolve(name + ".obj"), text).toFile();
+    }
+
+    private MeshPack pack(File source) throws IOException {
+        String path = directory.resolve("meshes.pack").toString();
+        String name = source.getName().replace(".obj", "");
+        MeshPack.write(path, new String[] {name}, new MeshData[] {ObjLoader.readObj(source.getPath())}, new File[] {source});
+        return MeshPack.open(path);
+    }
+}
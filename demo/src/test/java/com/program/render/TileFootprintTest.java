@@ -0,0 +1,81 @@
+package com.program.render;
+
+import com.program.objects.tile.Tile;
+import com.program.objects.tile.TileStore;
+import com.program.objects.tile.TileType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures how much heap a tile takes up, in the simulation's TileStore and as a TileView, and fails if either goes over a
+ * budget so that a change which puts per-tile data back into the views is noticed.
+ * <p>
+ * The numbers come from the used heap after collecting garbage, so they are only as exact as the collector, which is why
+ * the budgets have room to spare. A TileView can be created without starting the JavaFX toolkit.
+ */
+class TileFootprintTest {
+
+    private static final int TILES = 100000;
+    private static final double STORE_BUDGET = 64; // In bytes per tile
+    private static final double VIEW_BUDGET = 2048; // In bytes per tile, most of which is the MeshView itself
+
+    @Test
+    void tilesStayWithinTheirBudgets() {
+        Random random = new Random(1);
+
+        // Load every asset and appearance first, since those are shared and should not count towards any one tile
+        for (TileType type : TileType.VALUES) {
+            for (int stage = 1; stage <= TileStore.MAX_STAGE; stage++) {
+                TileStore store = new TileStore();
+                Tile tile = store.add(0, 0, type, 0);
+                store.setStage(tile.id, stage);
+                new TileView(0, 0, store.state(tile.id));
+            }
+        }
+
+        long before = usedMemory();
+        TileStore store = new TileStore();
+        for (int i = 0; i < TILES; i++) {
+            Tile tile = store.add(i % 400, i / 400, TileType.VALUES[random.nextInt(TileType.VALUES.length)],
+                    random.nextInt(TileStore.ROTATIONS.length));
+            store.setStage(tile.id, 1 + random.nextInt(TileStore.MAX_STAGE));
+        }
+        long afterStore = usedMemory();
+        TileView[] views = new TileView[TILES];
+        for (int i = 0; i < TILES; i++) {
+            views[i] = new TileView(store.q(i), store.r(i), store.state(i));
+        }
+        long afterViews = usedMemory();
+
+        // Keeps both reachable until after the last measurement
+        assertNotNull(views[TILES - 1]);
+        assertEquals(TILES, store.size());
+        double storeBytes = (afterStore - before) / (double) TILES;
+        double viewBytes = (afterViews - afterStore) / (double) TILES;
+        assertAll(
+                () -> assertTrue(storeBytes <= STORE_BUDGET,
+                        String.format("TileStore takes %.1f B/tile, over the budget of %.0f", storeBytes, STORE_BUDGET)),
+                () -> assertTrue(viewBytes <= VIEW_BUDGET,
+                        String.format("TileView takes %.1f B/tile, over the budget of %.0f", viewBytes, VIEW_BUDGET)));
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,118 @@
+package com.program.sim;
+
+import com.program.World;
+import com.program.engine.WorldObserver;
+import com.program.objects.tile.TileStore;
+import com.program.util.Rng;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks that the buffered and parallel modes of GrowthSim only depend on the seed of the world, and not on the order of
+ * OCCUPIED_TILES or the number of threads.
+ */
+class GrowthSimTest {
+
+    private static final long SEED = 1;
+    private static final int TICKS = 200;
+
+    @Test
+    void bufferedTickDoesNotDependOnTileOrder() {
+        World grown = grow(2000);
+        World inOrder = rebuild(grown, SEED, false);
+        World reversed = rebuild(grown, SEED, true);
+        simulate(inOrder, GrowthSim.Mode.BUFFERED, 0);
+        simulate(reversed, GrowthSim.Mode.BUFFERED, 0);
+
+        assertFalse(Arrays.deepEquals(columns(grown), columns(inOrder)), "Nothing grew, so the test shows nothing");
+        assertArrayEquals(columns(inOrder), columns(reversed));
+        assertArrayEquals(inOrder.POPULATIONS, reversed.POPULATIONS);
+        assertArrayEquals(inOrder.YIELDS, reversed.YIELDS);
+    }
+
+    @Test
+    void bufferedTickDependsOnSeed() {
+        World grown = grow(2000);
+        World world = rebuild(grown, SEED, false);
+        World otherSeed = rebuild(grown, SEED + 1, false);
+        simulate(world, GrowthSim.Mode.BUFFERED, 0);
+        simulate(otherSeed, GrowthSim.Mode.BUFFERED, 0);
+
+        assertFalse(Arrays.deepEquals(columns(world), columns(otherSeed)));
+    }
+
+    @Test
+    void parallelTickDoesNotDependOnThreadCount() {
+        World grown = grow(20000); // Enough for every colour class to be split into many chunks
+        World reference = rebuild(grown, SEED, false);
+        simulate(reference, GrowthSim.Mode.PARALLEL, 1);
+        assertFalse(Arrays.deepEquals(columns(grown), columns(reference)), "Nothing grew, so the test shows nothing");
+
+        for (int parallelism : new int[] {2, 3, 4, 8, 16, 32}) {
+            World world = rebuild(grown, SEED, false);
+            simulate(world, GrowthSim.Mode.PARALLEL, parallelism);
+            assertArrayEquals(columns(reference), columns(world), parallelism + " threads");
+            assertArrayEquals(reference.POPULATIONS, world.POPULATIONS, parallelism + " threads");
+            assertArrayEquals(reference.YIELDS, world.YIELDS, parallelism + " threads");
+        }
+    }
+
+    // Occupies tiles until there are a number of them, all at their first stage
+    private static World grow(int tiles) {
+        World world = new World(new WorldObserver() {}, new Rng(SEED));
+        TerrainSim terrain = new TerrainSim(2.0);
+        while (world.OCCUPIED_TILES.size() < tiles) {
+            terrain.simulate(world);
+        }
+        return world;
+    }
+
+    // Copies the tiles of a world into a new one with its own seed, optionally listing the occupied tiles the other way round
+    private static World rebuild(World world, long seed, boolean reverse) {
+        TileStore from = world.TILES;
+        TileStore tiles = new TileStore(from.size());
+        for (int id = 0; id < from.size(); id++) {
+            tiles.add(from.q(id), from.r(id), from.firstType(id), from.rotation(id));
+            tiles.setType(id, from.type(id));
+            tiles.setStage(id, from.stage(id));
+            if (from.isAbandoned(id)) {
+                tiles.markAbandoned(id);
+            }
+        }
+        int[] occupied = new int[world.OCCUPIED_TILES.size()];
+        for (int rank = 0; rank < occupied.length; rank++) {
+            occupied[reverse ? occupied.length - 1 - rank : rank] = world.OCCUPIED_TILES.get(rank);
+        }
+        int[] free = new int[world.FREE_TILES.size()];
+        for (int i = 0; i < free.length; i++) {
+            free[i] = world.FREE_TILES.get(i).id;
+        }
+        return new World(new WorldObserver() {}, new Rng(seed), tiles, occupied, free, world.getGeneration());
+    }
+
+    // Runs the ticks in a mode, on a ForkJoinPool of their own with a number of threads unless that is 0
+    private static void simulate(World world, GrowthSim.Mode mode, int parallelism) {
+        GrowthSim growth = new GrowthSim(4.0);
+        growth.setMode(mode);
+        growth.setParallelism(parallelism);
+        try {
+            for (int tick = 0; tick < TICKS; tick++) {
+                growth.simulate(world);
+            }
+        }
+        finally {
+            growth.setParallelism(0); // Shuts the pool down
+        }
+    }
+
+    // The type, stage and flag columns of the tiles of a world
+    private static byte[][] columns(World world) {
+        int size = world.TILES.size();
+        return new byte[][] {Arrays.copyOf(world.TILES.types(), size), Arrays.copyOf(world.TILES.stages(), size),
+                Arrays.copyOf(world.TILES.flags(), size)};
+    }
+}
@@ -0,0 +1,144 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayListTest {
+
+    @Test
+    void addGrowsPastTheDefaultCapacity() {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, list.get(i));
+        }
+        Object[] elements = list.getList(); // The copy is an Object[] whatever the type of the elements
+        assertEquals(1000, elements.length);
+    }
+
+    @Test
+    void sizedListStartsOutFilledWithNulls() {
+        ArrayList<String> list = new ArrayList<>(3);
+        assertEquals(3, list.size());
+        assertNull(list.get(2));
+        list.set(2, "c");
+        assertEquals("c", list.get(2));
+        list.add("d");
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    void outOfRangeIndicesAreIgnored() {
+        ArrayList<String> list = new ArrayList<>();
+        list.add("a");
+        assertNull(list.get(1));
+        assertNull(list.get(-1));
+        assertNull(list.removeAt(1));
+        list.set(1, "b");
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void removeAtShiftsTheFollowingElementsDown() {
+        ArrayList<String> list = of("a", "b", "c", "d");
+        assertEquals("b", list.removeAt(1));
+        assertArrayEquals(new Object[] {"a", "c", "d"}, list.getList());
+        assertEquals("d", list.removeAt(2));
+        assertArrayEquals(new Object[] {"a", "c"}, list.getList());
+    }
+
+    @Test
+    void removeFirstOnlyRemovesOneInstance() {
+        String a = "a", b = "b";
+        ArrayList<String> list = of(a, b, a, b);
+        list.removeFirst(b);
+        assertArrayEquals(new Object[] {a, a, b}, list.getList());
+        list.removeFirst("missing");
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    void removeAllKeepsTheOrderOfTheRest() {
+        String a = "a", b = "b", c = "c";
+        ArrayList<String> list = of(a, b, a, c, a);
+        list.removeAll(a);
+        assertArrayEquals(new Object[] {b, c}, list.getList());
+        assertNull(list.get(2));
+    }
+
+    @Test
+    void clearedListCanBeFilledAgain() {
+        ArrayList<String> list = of("a", "b", "c");
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertNull(list.get(0));
+        list.add("d");
+        assertArrayEquals(new Object[] {"d"}, list.getList());
+    }
+
+    @Test
+    void indexOfComparesByEquality() {
+        ArrayList<String> list = of("a", null, "b");
+        assertEquals(2, list.indexOf(new String("b")));
+        assertEquals(1, list.indexOf(null));
+        assertEquals(-1, list.indexOf("c"));
+    }
+
+    @Test
+    void equalListsHaveTheSameSize() {
+        String a = "a", b = "b", c = "c";
+        ArrayList<String> list = of(a, b, c);
+        assertTrue(list.equals(of(a, b, c)));
+        assertFalse(list.equals(of(a, b)), "A prefix is not the whole list");
+        assertFalse(of(a, b).equals(list), "The whole list is not a prefix of itself");
+        assertFalse(list.equals(new ArrayList<>()));
+        assertFalse(new ArrayList<String>().equals(list));
+        assertTrue(new ArrayList<String>().equals(new ArrayList<>()));
+        assertFalse(list.equals(of(a, c, b)));
+    }
+
+    @Test
+    void cloneDoesNotShareTheBackingArray() {
+        ArrayList<String> list = of("a", "b");
+        ArrayList<String> clone = list.clone();
+        clone.set(0, "c");
+        clone.add("d");
+        assertArrayEquals(new Object[] {"a", "b"}, list.getList());
+        assertArrayEquals(new Object[] {"c", "b", "d"}, clone.getList());
+    }
+
+    @Test
+    void iteratorVisitsTheElementsInOrder() {
+        ArrayList<String> list = of("a", "b", "c");
+        StringBuilder visited = new StringBuilder();
+        for (String element : list) {
+            visited.append(element);
+        }
+        assertEquals("abc", visited.toString());
+
+        Iterator<String> iterator = new ArrayList<String>().iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @SafeVarargs
+    private static <T> ArrayList<T> of(T... elements) {
+        ArrayList<T> list = new ArrayList<>();
+        for (T element : elements) {
+            list.add(element);
+        }
+        return list;
+    }
+}
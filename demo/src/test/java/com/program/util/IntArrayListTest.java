@@ -0,0 +1,80 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntArrayListTest {
+
+    @Test
+    void addGrowsPastTheInitialCapacity() {
+        IntArrayList list = new IntArrayList(1);
+        for (int i = 0; i < 1000; i++) {
+            list.add(i * 3);
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 3, list.get(i));
+        }
+    }
+
+    @Test
+    void outOfRangeIndicesThrow() {
+        IntArrayList list = new IntArrayList();
+        list.add(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(1, 2));
+        list.clear();
+        assertThrows(IndexOutOfBoundsException.class, list::removeLast);
+    }
+
+    @Test
+    void swapRemoveMovesTheLastValueIntoTheGap() {
+        IntArrayList list = of(10, 20, 30, 40);
+        assertEquals(20, list.swapRemove(1));
+        assertArrayEquals(new int[] {10, 40, 30}, list.toArray());
+        assertEquals(30, list.swapRemove(2)); // Removing the last value leaves nothing to move
+        assertArrayEquals(new int[] {10, 40}, list.toArray());
+    }
+
+    @Test
+    void removeLastTakesFromTheEnd() {
+        IntArrayList list = of(1, 2, 3);
+        assertEquals(3, list.removeLast());
+        assertEquals(2, list.removeLast());
+        assertArrayEquals(new int[] {1}, list.toArray());
+    }
+
+    @Test
+    void setAndSearch() {
+        IntArrayList list = of(5, 6, 7);
+        list.set(1, 8);
+        assertEquals(1, list.indexOf(8));
+        assertEquals(-1, list.indexOf(6));
+        assertTrue(list.contains(7));
+        assertFalse(list.contains(6));
+    }
+
+    @Test
+    void clearedListCanBeFilledAgain() {
+        IntArrayList list = of(1, 2, 3);
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertArrayEquals(new int[0], list.toArray());
+        list.add(4);
+        assertArrayEquals(new int[] {4}, list.toArray());
+    }
+
+    private static IntArrayList of(int... values) {
+        IntArrayList list = new IntArrayList();
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,82 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongArrayListTest {
+
+    @Test
+    void addGrowsPastTheInitialCapacity() {
+        LongArrayList list = new LongArrayList(1);
+        for (int i = 0; i < 1000; i++) {
+            list.add(HexCoord.pack(i, -i)); // Values that do not fit in an int
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(HexCoord.pack(i, -i), list.get(i));
+        }
+    }
+
+    @Test
+    void outOfRangeIndicesThrow() {
+        LongArrayList list = new LongArrayList(0); // Still gets room for one value
+        list.add(1);
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(1, 2));
+        list.clear();
+        assertThrows(IndexOutOfBoundsException.class, list::removeLast);
+    }
+
+    @Test
+    void swapRemoveMovesTheLastValueIntoTheGap() {
+        LongArrayList list = of(10, 20, 30, 40);
+        assertEquals(20, list.swapRemove(1));
+        assertArrayEquals(new long[] {10, 40, 30}, list.toArray());
+        assertEquals(30, list.swapRemove(2)); // Removing the last value leaves nothing to move
+        assertArrayEquals(new long[] {10, 40}, list.toArray());
+    }
+
+    @Test
+    void removeLastTakesFromTheEnd() {
+        LongArrayList list = of(1, 2, 3);
+        assertEquals(3, list.removeLast());
+        assertEquals(2, list.removeLast());
+        assertArrayEquals(new long[] {1}, list.toArray());
+    }
+
+    @Test
+    void setAndSearch() {
+        LongArrayList list = of(5, Long.MIN_VALUE, 7);
+        assertEquals(1, list.indexOf(Long.MIN_VALUE));
+        list.set(1, Long.MAX_VALUE);
+        assertEquals(1, list.indexOf(Long.MAX_VALUE));
+        assertEquals(-1, list.indexOf(Long.MIN_VALUE));
+        assertTrue(list.contains(7));
+        assertFalse(list.contains(6));
+        assertEquals("{5, " + Long.MAX_VALUE + ", 7}", list.toString());
+    }
+
+    @Test
+    void clearedListCanBeFilledAgain() {
+        LongArrayList list = of(1, 2, 3);
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertArrayEquals(new long[0], list.toArray());
+        list.add(4);
+        assertArrayEquals(new long[] {4}, list.toArray());
+    }
+
+    private static LongArrayList of(long... values) {
+        LongArrayList list = new LongArrayList();
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,106 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongHashSetTest {
+
+    @Test
+    void findsEveryCoordinateOfAGrowingSet() {
+        LongHashSet set = new LongHashSet(); // Starts small, so it resizes many times
+        for (int q = -50; q <= 50; q++) {
+            for (int r = -50; r <= 50; r++) {
+                assertTrue(set.add(HexCoord.pack(q, r)));
+            }
+        }
+        assertEquals(101 * 101, set.size());
+        for (int q = -50; q <= 50; q++) {
+            for (int r = -50; r <= 50; r++) {
+                assertTrue(set.contains(HexCoord.pack(q, r)));
+                assertFalse(set.add(HexCoord.pack(q, r)));
+            }
+        }
+        assertFalse(set.contains(HexCoord.pack(51, 0)));
+        assertEquals(101 * 101, set.size());
+    }
+
+    @Test
+    void zeroIsAnElementLikeAnyOther() {
+        // 0 marks the free slots, so the set has to keep track of it on the side. It is also the starting tile, (0, 0)
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.add(HexCoord.pack(0, 0)));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        assertArrayEquals(new long[] {0}, set.toArray());
+        assertTrue(set.remove(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void removeShiftsTheRestOfTheProbeSequenceBack() {
+        // Random elements filling a table of 64 slots up to its highest load form long probe sequences, so removing every
+        // other element leaves holes in the middle of them that later elements have to be moved back over
+        long[] keys = new Random(1).longs(32).toArray();
+        LongHashSet set = new LongHashSet(32);
+        for (long key : keys) {
+            set.add(key);
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertTrue(set.remove(keys[i]));
+            assertFalse(set.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 1, set.contains(keys[i]));
+        }
+        assertEquals(16, set.size());
+    }
+
+    @Test
+    void behavesLikeAHashSet() {
+        LongHashSet set = new LongHashSet();
+        HashSet<Long> expected = new HashSet<>();
+        Random random = new Random(1);
+        for (int step = 0; step < 200000; step++) {
+            long key = HexCoord.pack(random.nextInt(64) - 32, random.nextInt(64) - 32); // Few enough keys to come up again
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(expected.add(key), set.add(key));
+            }
+            else if (operation == 1) {
+                assertEquals(expected.remove(key), set.remove(key));
+            }
+            else {
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+            assertEquals(expected.size(), set.size());
+        }
+        long[] elements = set.toArray();
+        Arrays.sort(elements);
+        long[] expectedElements = expected.stream().mapToLong(Long::longValue).sorted().toArray();
+        assertArrayEquals(expectedElements, elements);
+    }
+
+    @Test
+    void clearedSetCanBeFilledAgain() {
+        LongHashSet set = new LongHashSet();
+        set.add(0);
+        set.add(1);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(1));
+        set.add(1);
+        assertArrayEquals(new long[] {1}, set.toArray());
+    }
+}
@@ -0,0 +1,118 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectMapTest {
+
+    @Test
+    void findsEveryCoordinateOfAGrowingMap() {
+        LongObjectMap<String> map = new LongObjectMap<>(); // Starts small, so it resizes many times
+        for (int q = -50; q <= 50; q++) {
+            for (int r = -50; r <= 50; r++) {
+                assertNull(map.put(HexCoord.pack(q, r), q + "," + r));
+            }
+        }
+        assertEquals(101 * 101, map.size());
+        for (int q = -50; q <= 50; q++) {
+            for (int r = -50; r <= 50; r++) {
+                assertEquals(q + "," + r, map.get(HexCoord.pack(q, r)));
+            }
+        }
+        assertNull(map.get(HexCoord.pack(51, 0)));
+        assertFalse(map.containsKey(HexCoord.pack(0, -51)));
+    }
+
+    @Test
+    void putReplacesTheValueOfAKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(7, "a"));
+        assertEquals("a", map.put(7, "b"));
+        assertEquals("b", map.get(7));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void nullValuesAreRejected() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void removeShiftsTheRestOfTheProbeSequenceBack() {
+        // Random keys filling a table of 64 slots up to its highest load form long probe sequences, so removing every other
+        // key leaves holes in the middle of them that later keys have to be moved back over
+        long[] keys = new Random(1).longs(32).toArray();
+        LongObjectMap<Long> map = new LongObjectMap<>(32);
+        for (long key : keys) {
+            map.put(key, key);
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals(keys[i], map.remove(keys[i]));
+            assertNull(map.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? null : (Long) keys[i], map.get(keys[i]));
+        }
+        assertEquals(16, map.size());
+    }
+
+    @Test
+    void behavesLikeAHashMap() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        HashMap<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int step = 0; step < 200000; step++) {
+            long key = HexCoord.pack(random.nextInt(64) - 32, random.nextInt(64) - 32); // Few enough keys to come up again
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                assertEquals(expected.put(key, (long) step), map.put(key, (long) step));
+            }
+            else if (operation == 1) {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else {
+                assertEquals(expected.get(key), map.get(key));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Object[] values = map.values();
+        Arrays.sort(values);
+        Object[] expectedValues = expected.values().toArray();
+        Arrays.sort(expectedValues);
+        assertArrayEquals(expectedValues, values);
+    }
+
+    @Test
+    void ensureCapacityKeepsTheEntries() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(-1, "a");
+        map.put(HexCoord.pack(3, -4), "b");
+        map.ensureCapacity(100000);
+        assertEquals("a", map.get(-1));
+        assertEquals("b", map.get(HexCoord.pack(3, -4)));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void clearedMapCanBeFilledAgain() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1, "a");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+        map.put(1, "b");
+        assertEquals("b", map.get(1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.program.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueueTest {
+
+    @Test
+    void emptyQueueHasNothingToGive() {
+        Queue<Integer> queue = new Queue<>();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.peek());
+        assertNull(queue.dequeue());
+        assertNull(queue.get(0));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void elementsComeOutInTheOrderTheyWentIn() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 100; i++) { // Grows the buffer several times
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.peek());
+            assertEquals(i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void indicesCountFromTheHeadAcrossTheEndOfTheBuffer() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            queue.dequeue();
+        }
+        for (int i = 6; i < 11; i++) { // Fills the buffer of 8 up again, wrapping the tail round to the start
+            queue.enqueue(i);
+        }
+        assertEquals(7, queue.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i + 4, queue.get(i));
+        }
+        assertNull(queue.get(7));
+        assertArrayEquals(new Object[] {4, 5, 6, 7, 8, 9, 10}, queue.getList());
+
+        queue.enqueue(11);
+        queue.enqueue(12); // Full while wrapped, so it grows and unwraps
+        assertArrayEquals(new Object[] {4, 5, 6, 7, 8, 9, 10, 11, 12}, queue.getList());
+    }
+
+    @Test
+    void shrinkingKeepsTheOrder() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 0; i < 990; i++) { // Halves the buffer several times on the way down
+            assertEquals(i, queue.dequeue());
+        }
+        for (int i = 1000; i < 1010; i++) {
+            queue.enqueue(i);
+        }
+        for (int i = 990; i < 1010; i++) {
+            assertEquals(i, queue.dequeue());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void behavesLikeAnArrayDeque() {
+        Queue<Integer> queue = new Queue<>();
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(1);
+        for (int step = 0; step < 100000; step++) {
+            // Enqueues slightly more often than it dequeues, so the size wanders up and down through several resizes
+            if (random.nextInt(100) < 52 || expected.isEmpty()) {
+                queue.enqueue(step);
+                expected.addLast(step);
+            }
+            else {
+                assertEquals(expected.pollFirst(), queue.dequeue());
+            }
+            assertEquals(expected.size(), queue.size());
+            assertEquals(expected.peekFirst(), queue.peek());
+        }
+        assertArrayEquals(expected.toArray(), queue.getList());
+    }
+
+    @Test
+    void iteratorVisitsTheElementsInTheOrderTheyWillBeDequeued() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 12; i++) {
+            queue.enqueue(i);
+        }
+        queue.dequeue();
+        queue.dequeue();
+        int expected = 2;
+        for (int element : queue) {
+            assertEquals(expected++, element);
+        }
+        assertEquals(12, expected);
+
+        Iterator<Integer> iterator = new Queue<Integer>().iterator();
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+}